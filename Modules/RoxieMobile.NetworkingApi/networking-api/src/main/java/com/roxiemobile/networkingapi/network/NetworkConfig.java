@@ -10,4 +10,23 @@ public interface NetworkConfig
         int CONNECTION = 60 * 1000;
         int READ = 30 * 1000;
     }
+
+    interface ConnectionPool
+    {
+        int MAX_IDLE_CONNECTIONS = 5;
+        // In milliseconds
+        long KEEP_ALIVE_DURATION = 5 * 60 * 1000;
+    }
+
+    interface Dispatcher
+    {
+        int MAX_REQUESTS = 64;
+        int MAX_REQUESTS_PER_HOST = 5;
+    }
+
+    interface ConcurrencyLimit
+    {
+        int MIN_LIMIT = 2;
+        int INITIAL_LIMIT = 10;
+    }
 }
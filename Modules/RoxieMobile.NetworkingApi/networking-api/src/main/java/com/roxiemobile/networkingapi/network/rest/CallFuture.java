@@ -0,0 +1,471 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import com.annimon.stream.function.BiConsumer;
+import com.annimon.stream.function.Function;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.networkingapi.network.rest.response.RestApiError;
+import com.roxiemobile.networkingapi.network.rest.response.error.ApplicationLayerError;
+import com.roxiemobile.networkingapi.network.rest.response.error.RestApiErrorException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link Future} of a call result which can be composed with dependent actions.
+ * Works on all supported API levels, where {@code java.util.concurrent.CompletableFuture} is not available.
+ *
+ * The future completes exceptionally with a {@link RestApiError}, which is reported as
+ * a {@link RestApiErrorException} by {@link #get()} and by the completion actions.
+ * Completion actions run on the thread which completes the future, or on the calling thread
+ * if the future is already completed.
+ *
+ * Cancelling a dependent future, e.g. one returned by {@link #thenApply(Function)}, cancels this future
+ * only when all of its dependent futures are cancelled.
+ */
+public class CallFuture<V> implements Future<V>
+{
+// MARK: - Construction
+
+    public CallFuture() {
+        // Do nothing
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns a new future that is already completed with the given value.
+     */
+    public static @NotNull <V> CallFuture<V> completedFuture(V value) {
+        CallFuture<V> future = new CallFuture<>();
+        future.complete(value);
+        return future;
+    }
+
+    /**
+     * Returns a new future that is already completed with the given error.
+     */
+    public static @NotNull <V> CallFuture<V> failedFuture(@NotNull RestApiError error) {
+        CallFuture<V> future = new CallFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    /**
+     * Returns a new future that is completed with the values of all given futures in the same order,
+     * or with the first error if any of them fails.
+     */
+    public static @NotNull <V> CallFuture<List<V>> allOf(@NotNull List<CallFuture<V>> futures) {
+        Guard.notNull(futures, "futures is null");
+
+        final CallFuture<List<V>> result = new CallFuture<>();
+        final int count = futures.size();
+
+        if (count == 0) {
+            result.complete(Collections.emptyList());
+            return result;
+        }
+
+        // Cancel the pending futures if the result is cancelled
+        result.doOnCancel(() -> {
+            for (CallFuture<V> future : futures) {
+                future.cancel(true);
+            }
+            return true;
+        });
+
+        final AtomicReferenceArray<V> values = new AtomicReferenceArray<>(count);
+        final AtomicInteger remaining = new AtomicInteger(count);
+
+        for (int idx = 0; idx < count; idx++) {
+            final int index = idx;
+
+            futures.get(idx).whenComplete((value, error) -> {
+                if (error != null) {
+                    result.completeWithThrowable(error);
+                }
+                else {
+                    values.set(index, value);
+
+                    // All futures completed successfully
+                    if (remaining.decrementAndGet() == 0) {
+                        List<V> list = new ArrayList<>(count);
+                        for (int i = 0; i < count; i++) {
+                            list.add(values.get(i));
+                        }
+                        result.complete(Collections.unmodifiableList(list));
+                    }
+                }
+            });
+        }
+
+        // Done
+        return result;
+    }
+
+    /**
+     * Completes the future with the given value if it is not already completed.
+     */
+    public boolean complete(V value) {
+        return setResult(State.SUCCESS, value, null);
+    }
+
+    /**
+     * Completes the future with the given error if it is not already completed.
+     */
+    public boolean completeExceptionally(@NotNull RestApiError error) {
+        Guard.notNull(error, "error is null");
+        return setResult(State.FAILURE, null, error);
+    }
+
+    /**
+     * Cancels the future and the operation which produces its value.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean result = setResult(State.CANCELLED, null, null);
+
+        // Cancel the underlying operation
+        if (result) {
+            Cancellable cancellable;
+
+            synchronized (mLock) {
+                cancellable = mCancellable;
+                mCancellable = null;
+            }
+
+            if (cancellable != null) {
+                cancellable.cancel();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sets the operation which is cancelled along with the future.
+     */
+    public @NotNull CallFuture<V> doOnCancel(@NotNull Cancellable cancellable) {
+        Guard.notNull(cancellable, "cancellable is null");
+        boolean cancelled;
+
+        synchronized (mLock) {
+            cancelled = (mState == State.CANCELLED);
+
+            if (mState == State.PENDING) {
+                mCancellable = cancellable;
+            }
+        }
+
+        // The future is already cancelled
+        if (cancelled) {
+            cancellable.cancel();
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        synchronized (mLock) {
+            return (mState == State.CANCELLED);
+        }
+    }
+
+    @Override
+    public boolean isDone() {
+        synchronized (mLock) {
+            return (mState != State.PENDING);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the future completed with an error.
+     */
+    public boolean isCompletedExceptionally() {
+        synchronized (mLock) {
+            return (mState == State.FAILURE);
+        }
+    }
+
+    /**
+     * Returns the error the future completed with, or {@code null} if there is no error.
+     */
+    public @Nullable RestApiError error() {
+        synchronized (mLock) {
+            return mError;
+        }
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+        synchronized (mLock) {
+            while (mState == State.PENDING) {
+                mLock.wait();
+            }
+            return result();
+        }
+    }
+
+    @Override
+    public V get(long timeout, @NotNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (mLock) {
+            while (mState == State.PENDING) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    throw new TimeoutException();
+                }
+                TimeUnit.NANOSECONDS.timedWait(mLock, remaining);
+            }
+            return result();
+        }
+    }
+
+    /**
+     * Performs the given action when the future completes. The action receives either the value
+     * or the failure, which is a {@link RestApiErrorException} or a {@link CancellationException}.
+     */
+    public @NotNull CallFuture<V> whenComplete(@NotNull BiConsumer<? super V, ? super Throwable> action) {
+        Guard.notNull(action, "action is null");
+
+        addListener(() -> {
+            try {
+                action.accept(value(), failure());
+            }
+            catch (Throwable ex) {
+                Logger.e(TAG, ex);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Returns a new future that is completed with the result of the given function
+     * applied to the value of this future.
+     */
+    public @NotNull <U> CallFuture<U> thenApply(@NotNull Function<? super V, ? extends U> function) {
+        Guard.notNull(function, "function is null");
+        final CallFuture<U> result = newDependentFuture();
+
+        addListener(() -> {
+            if (mState == State.SUCCESS) {
+                try {
+                    result.complete(function.apply(mValue));
+                }
+                catch (Throwable ex) {
+                    result.completeExceptionally(new ApplicationLayerError(ex));
+                }
+            }
+            else {
+                result.completeWithThrowable(failure());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns a new future that is completed with the future returned by the given function
+     * applied to the value of this future.
+     */
+    public @NotNull <U> CallFuture<U> thenCompose(@NotNull Function<? super V, CallFuture<U>> function) {
+        Guard.notNull(function, "function is null");
+        final CallFuture<U> result = newDependentFuture();
+
+        addListener(() -> {
+            if (mState == State.SUCCESS) {
+                try {
+                    CallFuture<U> future = function.apply(mValue);
+                    Guard.notNull(future, "future is null");
+
+                    // Cancel the next step along with the result
+                    result.doOnCancel(() -> future.cancel(true));
+                    future.whenComplete((value, error) -> {
+                        if (error != null) {
+                            result.completeWithThrowable(error);
+                        }
+                        else {
+                            result.complete(value);
+                        }
+                    });
+                }
+                catch (Throwable ex) {
+                    result.completeExceptionally(new ApplicationLayerError(ex));
+                }
+            }
+            else {
+                result.completeWithThrowable(failure());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Returns a new future that is completed with the value of this future, or with the result
+     * of the given function applied to the error if this future completes exceptionally.
+     */
+    public @NotNull CallFuture<V> exceptionally(@NotNull Function<? super RestApiError, ? extends V> function) {
+        Guard.notNull(function, "function is null");
+        final CallFuture<V> result = newDependentFuture();
+
+        addListener(() -> {
+            if (mState == State.SUCCESS) {
+                result.complete(mValue);
+            }
+            else if (mState == State.FAILURE) {
+                try {
+                    result.complete(function.apply(mError));
+                }
+                catch (Throwable ex) {
+                    result.completeExceptionally(new ApplicationLayerError(ex));
+                }
+            }
+            else {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+// MARK: - Private Methods
+
+    private boolean setResult(@NotNull State state, V value, RestApiError error) {
+        List<Runnable> listeners;
+
+        synchronized (mLock) {
+            if (mState != State.PENDING) {
+                return false;
+            }
+
+            mState = state;
+            mValue = value;
+            mError = error;
+
+            listeners = mListeners;
+            mListeners = null;
+
+            if (state != State.CANCELLED) {
+                mCancellable = null;
+            }
+            mLock.notifyAll();
+        }
+
+        // Notify listeners
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+        return true;
+    }
+
+    private void completeWithThrowable(@NotNull Throwable failure) {
+        if (failure instanceof RestApiErrorException) {
+            completeExceptionally(((RestApiErrorException) failure).getError());
+        }
+        else {
+            cancel(false);
+        }
+    }
+
+    private @NotNull <U> CallFuture<U> newDependentFuture() {
+        CallFuture<U> future = new CallFuture<>();
+
+        synchronized (mLock) {
+            mDependentCount++;
+        }
+
+        // Cancel this future once all of its dependent ones are cancelled, so that cancelling
+        // one branch of a fan-out leaves the other branches running
+        future.doOnCancel(this::onDependentCancel);
+        return future;
+    }
+
+    private boolean onDependentCancel() {
+        boolean cancelled;
+
+        synchronized (mLock) {
+            cancelled = (++mCancelledDependentCount == mDependentCount);
+        }
+        return cancelled && cancel(true);
+    }
+
+    private void addListener(@NotNull Runnable listener) {
+        synchronized (mLock) {
+            if (mState == State.PENDING) {
+                mListeners.add(listener);
+                return;
+            }
+        }
+
+        // The future is already completed
+        listener.run();
+    }
+
+    private V result() throws ExecutionException {
+        switch (mState) {
+            case SUCCESS:
+                return mValue;
+            case FAILURE:
+                throw new ExecutionException(new RestApiErrorException(mError));
+            default:
+                throw new CancellationException();
+        }
+    }
+
+    private V value() {
+        synchronized (mLock) {
+            return mValue;
+        }
+    }
+
+    private @Nullable Throwable failure() {
+        synchronized (mLock) {
+            switch (mState) {
+                case FAILURE:
+                    return new RestApiErrorException(mError);
+                case CANCELLED:
+                    return new CancellationException();
+                default:
+                    return null;
+            }
+        }
+    }
+
+// MARK: - Inner Types
+
+    private enum State {
+        PENDING, SUCCESS, FAILURE, CANCELLED
+    }
+
+// MARK: - Constants
+
+    private static final String TAG = CallFuture.class.getSimpleName();
+
+// MARK: - Variables
+
+    private final Object mLock = new Object();
+
+    private State mState = State.PENDING;
+
+    private V mValue;
+
+    private RestApiError mError;
+
+    private List<Runnable> mListeners = new ArrayList<>();
+
+    private Cancellable mCancellable;
+
+    private int mDependentCount;
+
+    private int mCancelledDependentCount;
+}
@@ -0,0 +1,233 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Stops calls to a failing host for a while, then lets a few probe calls through to check if it recovered.
+ */
+public final class CircuitBreaker
+{
+// MARK: - Construction
+
+    CircuitBreaker(@NotNull String host, @NotNull CircuitBreakerRegistry registry) {
+        // Init instance variables
+        mHost = host;
+        mRegistry = registry;
+        mWindow = new boolean[registry.slidingWindowSize()];
+    }
+
+// MARK: - Properties
+
+    /**
+     * The scheme, host and port of the calls.
+     */
+    public @NotNull String host() {
+        return mHost;
+    }
+
+    /**
+     * The current state of the circuit breaker.
+     */
+    public @NotNull State state() {
+        synchronized (mLock) {
+            return mState;
+        }
+    }
+
+// MARK: - Methods
+
+    /**
+     * Asks for a permission to make a call. Returns a permit to pass to {@link #onComplete(long, boolean)},
+     * or {@link #NOT_PERMITTED} if the call must fail fast.
+     */
+    long acquire() {
+        State from = null;
+        long permit;
+
+        synchronized (mLock) {
+            // Let the probe calls through once the open duration has passed
+            if (mState == State.OPEN && (System.nanoTime() - mOpenedTime) >= mRegistry.openDurationNanos()) {
+                from = transitionTo(State.HALF_OPEN);
+            }
+
+            switch (mState) {
+                case CLOSED:
+                    permit = mGeneration;
+                    break;
+
+                case HALF_OPEN:
+                    if (mProbesInFlight < mRegistry.permittedProbes()) {
+                        mProbesInFlight++;
+                        permit = mGeneration;
+                    }
+                    else {
+                        permit = NOT_PERMITTED;
+                    }
+                    break;
+
+                default:
+                    permit = NOT_PERMITTED;
+                    break;
+            }
+        }
+
+        notifyStateChange(from, State.HALF_OPEN);
+        return permit;
+    }
+
+    /**
+     * Records the outcome of a call made with the given permit.
+     */
+    void onComplete(long permit, boolean success) {
+        State from = null;
+        State to = null;
+
+        synchronized (mLock) {
+            // Ignore the calls started before the last state change
+            if (permit != mGeneration) {
+                return;
+            }
+
+            if (mState == State.CLOSED) {
+                record(success);
+
+                if (mCallCount >= mRegistry.minimumNumberOfCalls()
+                        && mFailureCount >= mRegistry.failureRateThreshold() * mCallCount) {
+                    to = State.OPEN;
+                }
+            }
+            else if (mState == State.HALF_OPEN) {
+                mProbesInFlight--;
+
+                if (!success) {
+                    to = State.OPEN;
+                }
+                else if (++mProbeSuccessCount >= mRegistry.permittedProbes()) {
+                    to = State.CLOSED;
+                }
+            }
+
+            if (to != null) {
+                from = transitionTo(to);
+            }
+        }
+
+        notifyStateChange(from, to);
+    }
+
+    /**
+     * Releases the permit of a call whose outcome says nothing about the host, e.g. a cancelled one.
+     */
+    void onIgnored(long permit) {
+        synchronized (mLock) {
+            if (permit == mGeneration && mState == State.HALF_OPEN) {
+                mProbesInFlight--;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{" +
+                "host=" + mHost +
+                ", state=" + state() +
+                '}';
+    }
+
+// MARK: - Private Methods
+
+    private void record(boolean success) {
+        // Guarded by mLock
+        if (mCallCount == mWindow.length) {
+            if (!mWindow[mWindowIndex]) {
+                mFailureCount--;
+            }
+        }
+        else {
+            mCallCount++;
+        }
+
+        mWindow[mWindowIndex] = success;
+        mWindowIndex = (mWindowIndex + 1) % mWindow.length;
+
+        if (!success) {
+            mFailureCount++;
+        }
+    }
+
+    private @NotNull State transitionTo(@NotNull State state) {
+        // Guarded by mLock
+        State from = mState;
+
+        mState = state;
+        mGeneration++;
+
+        // Start over in the new state
+        mCallCount = 0;
+        mFailureCount = 0;
+        mWindowIndex = 0;
+        mProbesInFlight = 0;
+        mProbeSuccessCount = 0;
+
+        if (state == State.OPEN) {
+            mOpenedTime = System.nanoTime();
+        }
+        return from;
+    }
+
+    private void notifyStateChange(State from, State to) {
+        if (from != null && to != null) {
+            mRegistry.notifyStateChange(this, from, to);
+        }
+    }
+
+// MARK: - Inner Types
+
+    public enum State
+    {
+        /**
+         * The calls are let through and their outcomes are recorded.
+         */
+        CLOSED,
+
+        /**
+         * The calls fail fast.
+         */
+        OPEN,
+
+        /**
+         * A limited number of probe calls is let through to check if the host recovered.
+         */
+        HALF_OPEN
+    }
+
+// MARK: - Constants
+
+    static final long NOT_PERMITTED = -1;
+
+// MARK: - Variables
+
+    private final Object mLock = new Object();
+
+    private final @NotNull String mHost;
+
+    private final @NotNull CircuitBreakerRegistry mRegistry;
+
+    private final boolean[] mWindow;
+
+    private State mState = State.CLOSED;
+
+    private long mGeneration = 0;
+
+    private long mOpenedTime;
+
+    private int mWindowIndex;
+
+    private int mCallCount;
+
+    private int mFailureCount;
+
+    private int mProbesInFlight;
+
+    private int mProbeSuccessCount;
+}
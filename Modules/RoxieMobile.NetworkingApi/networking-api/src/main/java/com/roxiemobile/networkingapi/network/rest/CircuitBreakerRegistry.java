@@ -0,0 +1,248 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.androidcommons.logging.Logger;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the circuit breakers of the hosts, which share the same thresholds.
+ * The I/O errors and the 502, 503 and 504 responses count as failures of a host.
+ * <p>
+ * The registry keeps the circuit breakers of the most recently called hosts only.
+ */
+public final class CircuitBreakerRegistry
+{
+// MARK: - Construction
+
+    private CircuitBreakerRegistry(@NotNull Builder builder) {
+        // Init instance variables
+        mFailureRateThreshold = builder.mFailureRateThreshold;
+        mMinimumNumberOfCalls = builder.mMinimumNumberOfCalls;
+        mSlidingWindowSize = builder.mSlidingWindowSize;
+        mOpenDuration = builder.mOpenDuration;
+        mPermittedProbes = builder.mPermittedProbes;
+    }
+
+    /**
+     * Returns the registry with the default thresholds.
+     */
+    public static @NotNull CircuitBreakerRegistry shared() {
+        return SingletonHolder.SHARED_INSTANCE;
+    }
+
+// MARK: - Properties
+
+    /**
+     * The share of failed calls in the sliding window at which the circuit breaker opens, from 0 to 1.
+     */
+    public double failureRateThreshold() {
+        return mFailureRateThreshold;
+    }
+
+    /**
+     * The number of calls to record before the failure rate is checked.
+     */
+    public int minimumNumberOfCalls() {
+        return mMinimumNumberOfCalls;
+    }
+
+    /**
+     * The number of the last calls whose failure rate is checked.
+     */
+    public int slidingWindowSize() {
+        return mSlidingWindowSize;
+    }
+
+    /**
+     * The time in milliseconds the circuit breaker stays open before it lets the probe calls through.
+     */
+    public long openDuration() {
+        return mOpenDuration;
+    }
+
+    /**
+     * The number of probe calls which must succeed to close the circuit breaker.
+     */
+    public int permittedProbes() {
+        return mPermittedProbes;
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns the circuit breaker of the host, creating it if needed.
+     *
+     * @param host The scheme, host and port of the calls, e.g. {@code https://example.com:443}.
+     */
+    public @NotNull CircuitBreaker circuitBreaker(@NotNull String host) {
+        Guard.notEmpty(host, "host is empty");
+
+        synchronized (mCircuitBreakers) {
+            CircuitBreaker circuitBreaker = mCircuitBreakers.get(host);
+
+            if (circuitBreaker == null) {
+                circuitBreaker = new CircuitBreaker(host, this);
+                mCircuitBreakers.put(host, circuitBreaker);
+            }
+            return circuitBreaker;
+        }
+    }
+
+    /**
+     * Returns the circuit breakers of all hosts called so far.
+     */
+    public @NotNull List<CircuitBreaker> circuitBreakers() {
+        synchronized (mCircuitBreakers) {
+            return new ArrayList<>(mCircuitBreakers.values());
+        }
+    }
+
+    /**
+     * Registers a listener to be notified of the state changes of the circuit breakers.
+     */
+    public void addListener(@NotNull Listener listener) {
+        Guard.notNull(listener, "listener is null");
+        mListeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener registered earlier.
+     */
+    public void removeListener(@NotNull Listener listener) {
+        Guard.notNull(listener, "listener is null");
+        mListeners.remove(listener);
+    }
+
+// MARK: - Internal Methods
+
+    long openDurationNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(mOpenDuration);
+    }
+
+    void notifyStateChange(@NotNull CircuitBreaker circuitBreaker, @NotNull CircuitBreaker.State from, @NotNull CircuitBreaker.State to) {
+        Logger.i(TAG, "Circuit breaker for " + circuitBreaker.host() + " changed state from " + from + " to " + to);
+
+        for (Listener listener : mListeners) {
+            try {
+                listener.onStateChange(circuitBreaker, from, to);
+            }
+            catch (Throwable ex) {
+                Logger.w(TAG, ex);
+            }
+        }
+    }
+
+// MARK: - Inner Types
+
+    public interface Listener
+    {
+        /**
+         * Called when the circuit breaker changes its state.
+         */
+        void onStateChange(@NotNull CircuitBreaker circuitBreaker, @NotNull CircuitBreaker.State from, @NotNull CircuitBreaker.State to);
+    }
+
+    public static final class Builder
+    {
+        public Builder() {
+            // Do nothing
+        }
+
+        /**
+         * Sets the share of failed calls in the sliding window at which the circuit breaker opens, from 0 to 1.
+         */
+        public @NotNull Builder failureRateThreshold(double failureRateThreshold) {
+            Guard.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 1, "failureRateThreshold is out of (0, 1]");
+            mFailureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the number of calls to record before the failure rate is checked.
+         */
+        public @NotNull Builder minimumNumberOfCalls(int minimumNumberOfCalls) {
+            Guard.isTrue(minimumNumberOfCalls > 0, "minimumNumberOfCalls <= 0");
+            mMinimumNumberOfCalls = minimumNumberOfCalls;
+            return this;
+        }
+
+        /**
+         * Sets the number of the last calls whose failure rate is checked.
+         */
+        public @NotNull Builder slidingWindowSize(int slidingWindowSize) {
+            Guard.isTrue(slidingWindowSize > 0, "slidingWindowSize <= 0");
+            mSlidingWindowSize = slidingWindowSize;
+            return this;
+        }
+
+        /**
+         * Sets the time in milliseconds the circuit breaker stays open before it lets the probe calls through.
+         */
+        public @NotNull Builder openDuration(long openDuration) {
+            Guard.isTrue(openDuration > 0, "openDuration <= 0");
+            mOpenDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of probe calls which must succeed to close the circuit breaker.
+         */
+        public @NotNull Builder permittedProbes(int permittedProbes) {
+            Guard.isTrue(permittedProbes > 0, "permittedProbes <= 0");
+            mPermittedProbes = permittedProbes;
+            return this;
+        }
+
+        public @NotNull CircuitBreakerRegistry build() {
+            Guard.isTrue(mMinimumNumberOfCalls <= mSlidingWindowSize, "minimumNumberOfCalls > slidingWindowSize");
+            return new CircuitBreakerRegistry(this);
+        }
+
+        private double mFailureRateThreshold = 0.5;
+        private int mMinimumNumberOfCalls = 10;
+        private int mSlidingWindowSize = 20;
+        private long mOpenDuration = 30 * 1000;
+        private int mPermittedProbes = 3;
+    }
+
+    private static final class SingletonHolder
+    {
+        private static final CircuitBreakerRegistry SHARED_INSTANCE = new Builder().build();
+    }
+
+// MARK: - Constants
+
+    private static final String TAG = CircuitBreakerRegistry.class.getSimpleName();
+
+    private static final int MAX_CIRCUIT_BREAKERS = 64;
+
+// MARK: - Variables
+
+    private final double mFailureRateThreshold;
+
+    private final int mMinimumNumberOfCalls;
+
+    private final int mSlidingWindowSize;
+
+    private final long mOpenDuration;
+
+    private final int mPermittedProbes;
+
+    private final Map<String, CircuitBreaker> mCircuitBreakers =
+            new LinkedHashMap<String, CircuitBreaker>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CircuitBreaker> eldest) {
+                    return size() > MAX_CIRCUIT_BREAKERS;
+                }
+            };
+
+    private final List<Listener> mListeners = new CopyOnWriteArrayList<>();
+}
@@ -0,0 +1,159 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-flight request limit which adapts to the observed round-trip times and errors (AIMD).
+ * <p>
+ * The limit grows by one while the in-flight requests use at least half of it, and is cut back
+ * by the backoff ratio when a request fails or takes longer than the tolerated multiple
+ * of the shortest round-trip time seen recently.
+ * <p>
+ * The round-trip times of different servers are not comparable, so a limit must be fed
+ * by the requests to a single host only.
+ */
+public final class ConcurrencyLimit
+{
+// MARK: - Construction
+
+    public ConcurrencyLimit(int minLimit, int initialLimit, int maxLimit) {
+        Guard.isTrue(minLimit > 0, "minLimit <= 0");
+        Guard.isTrue(initialLimit >= minLimit, "initialLimit < minLimit");
+        Guard.isTrue(maxLimit >= initialLimit, "maxLimit < initialLimit");
+
+        // Init instance variables
+        mMinLimit = minLimit;
+        mMaxLimit = maxLimit;
+        mLimit = initialLimit;
+        mHistory.addLast(initialLimit);
+    }
+
+// MARK: - Properties
+
+    /**
+     * The current number of requests allowed in flight.
+     */
+    public int limit() {
+        synchronized (mLock) {
+            return (int) mLimit;
+        }
+    }
+
+    /**
+     * The number of requests in flight.
+     */
+    public int inFlight() {
+        synchronized (mLock) {
+            return mInFlight;
+        }
+    }
+
+    /**
+     * The recent values of the limit, oldest first.
+     */
+    public @NotNull List<Integer> history() {
+        synchronized (mLock) {
+            return new ArrayList<>(mHistory);
+        }
+    }
+
+// MARK: - Methods
+
+    /**
+     * Records the start of a request and returns its start time for {@link #onComplete(long, boolean)}.
+     */
+    public long onStart() {
+        synchronized (mLock) {
+            mInFlight++;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the end of a request started at the given time.
+     *
+     * @param dropped Whether the request failed in a way that indicates an overloaded server.
+     */
+    public void onComplete(long startTime, boolean dropped) {
+        long now = System.nanoTime();
+        long rtt = now - startTime;
+
+        synchronized (mLock) {
+            int inFlight = mInFlight--;
+
+            // Forget the shortest round-trip time from time to time, so that the limit follows a changed server
+            if (mMinRtt == 0 || rtt < mMinRtt || (now - mMinRttTime) > MIN_RTT_RESET_INTERVAL) {
+                mMinRtt = Math.max(rtt, 1);
+                mMinRttTime = now;
+            }
+
+            double limit = mLimit;
+            if (dropped || rtt > mMinRtt * RTT_TOLERANCE) {
+                limit = Math.max(mMinLimit, limit * BACKOFF_RATIO);
+            }
+            else if (inFlight * 2 >= limit) {
+                limit = Math.min(mMaxLimit, limit + 1);
+            }
+
+            // Remember the changes of the limit
+            if ((int) limit != (int) mLimit) {
+                if (mHistory.size() == MAX_HISTORY_SIZE) {
+                    mHistory.removeFirst();
+                }
+                mHistory.addLast((int) limit);
+            }
+            mLimit = limit;
+        }
+    }
+
+    /**
+     * Records the end of a request started with {@link #onStart()} which was never sent,
+     * so it says nothing about the round-trip time.
+     */
+    public void onIgnored() {
+        synchronized (mLock) {
+            mInFlight--;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimit{" +
+                "limit=" + limit() +
+                ", inFlight=" + inFlight() +
+                '}';
+    }
+
+// MARK: - Constants
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double RTT_TOLERANCE = 2.0;
+
+    private static final long MIN_RTT_RESET_INTERVAL = TimeUnit.SECONDS.toNanos(30);
+    private static final int MAX_HISTORY_SIZE = 100;
+
+// MARK: - Variables
+
+    private final Object mLock = new Object();
+
+    private final int mMinLimit;
+
+    private final int mMaxLimit;
+
+    private final ArrayDeque<Integer> mHistory = new ArrayDeque<>();
+
+    private double mLimit;
+
+    private int mInFlight = 0;
+
+    private long mMinRtt = 0;
+
+    private long mMinRttTime = 0;
+}
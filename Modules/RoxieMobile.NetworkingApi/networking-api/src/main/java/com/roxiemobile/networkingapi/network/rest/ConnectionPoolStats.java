@@ -0,0 +1,84 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+public final class ConnectionPoolStats
+{
+// MARK: - Construction
+
+    ConnectionPoolStats(int idleConnectionCount, int connectionCount, long acquiredConnectionCount, long createdConnectionCount) {
+        // Init instance variables
+        mIdleConnectionCount = idleConnectionCount;
+        mConnectionCount = connectionCount;
+        mAcquiredConnectionCount = acquiredConnectionCount;
+        mCreatedConnectionCount = createdConnectionCount;
+    }
+
+// MARK: - Properties
+
+    /**
+     * The number of idle connections in the pool.
+     */
+    public int idleConnectionCount() {
+        return mIdleConnectionCount;
+    }
+
+    /**
+     * The number of connections in the pool that are currently in use.
+     */
+    public int activeConnectionCount() {
+        return Math.max(mConnectionCount - mIdleConnectionCount, 0);
+    }
+
+    /**
+     * The total number of open connections in the pool.
+     */
+    public int connectionCount() {
+        return mConnectionCount;
+    }
+
+    /**
+     * The number of times a call acquired a connection, either a new or a pooled one.
+     */
+    public long acquiredConnectionCount() {
+        return mAcquiredConnectionCount;
+    }
+
+    /**
+     * The number of newly established connections.
+     */
+    public long createdConnectionCount() {
+        return mCreatedConnectionCount;
+    }
+
+    /**
+     * The share of connection acquisitions which were served by a pooled connection, in range [0, 1].
+     */
+    public double reuseRatio() {
+        if (mAcquiredConnectionCount <= 0) {
+            return 0;
+        }
+
+        long reusedConnectionCount = Math.max(mAcquiredConnectionCount - mCreatedConnectionCount, 0);
+        return (double) reusedConnectionCount / mAcquiredConnectionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats{" +
+                "idle=" + mIdleConnectionCount +
+                ", active=" + activeConnectionCount() +
+                ", acquired=" + mAcquiredConnectionCount +
+                ", created=" + mCreatedConnectionCount +
+                ", reuseRatio=" + reuseRatio() +
+                '}';
+    }
+
+// MARK: - Variables
+
+    private final int mIdleConnectionCount;
+
+    private final int mConnectionCount;
+
+    private final long mAcquiredConnectionCount;
+
+    private final long mCreatedConnectionCount;
+}
@@ -0,0 +1,115 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shares the worker threads of {@link TaskQueue} between groups of tasks, so that a group which enqueues
+ * thousands of tasks can't starve the others. Within a priority class, the next task is taken from the group
+ * which has started the fewest tasks relative to its weight (weighted fair queueing).
+ * <p>
+ * By default every tag forms its own group of weight 1, so that the tags are served round-robin.
+ */
+public final class FairSharePolicy
+{
+// MARK: - Construction
+
+    private FairSharePolicy(@NotNull Builder builder) {
+        // Init instance variables
+        mGroupResolver = builder.mGroupResolver;
+        mWeights = new HashMap<>(builder.mWeights);
+        mDefaultWeight = builder.mDefaultWeight;
+    }
+
+// MARK: - Properties
+
+    /**
+     * The weight of the groups which have no weight of their own.
+     */
+    public int defaultWeight() {
+        return mDefaultWeight;
+    }
+
+// MARK: - Methods
+
+    /**
+     * Returns the group of the tasks with the given tag.
+     */
+    public @Nullable String groupOf(@Nullable String tag) {
+        return mGroupResolver.groupOf(tag);
+    }
+
+    /**
+     * Returns the share of the worker threads of the group, relative to the weights of the other groups.
+     */
+    public int weightOf(@Nullable String group) {
+        Integer weight = mWeights.get(group);
+        return (weight != null) ? weight : mDefaultWeight;
+    }
+
+// MARK: - Inner Types
+
+    public interface GroupResolver
+    {
+        /**
+         * Returns the group of the tasks with the given tag, e.g. the feature or the tenant the tag belongs to.
+         */
+        @Nullable String groupOf(@Nullable String tag);
+    }
+
+    public static final class Builder
+    {
+        public Builder() {
+            // Do nothing
+        }
+
+        /**
+         * Sets the resolver which maps the tags to the groups.
+         */
+        public @NotNull Builder groupResolver(@NotNull GroupResolver groupResolver) {
+            Guard.notNull(groupResolver, "groupResolver is null");
+            mGroupResolver = groupResolver;
+            return this;
+        }
+
+        /**
+         * Sets the weight of the group. A group of weight 2 starts twice as many tasks as a group of weight 1
+         * while both have tasks waiting.
+         */
+        public @NotNull Builder weight(@Nullable String group, int weight) {
+            Guard.isTrue(weight > 0, "weight <= 0");
+            mWeights.put(group, weight);
+            return this;
+        }
+
+        /**
+         * Sets the weight of the groups which have no weight of their own.
+         */
+        public @NotNull Builder defaultWeight(int defaultWeight) {
+            Guard.isTrue(defaultWeight > 0, "defaultWeight <= 0");
+            mDefaultWeight = defaultWeight;
+            return this;
+        }
+
+        public @NotNull FairSharePolicy build() {
+            return new FairSharePolicy(this);
+        }
+
+        private GroupResolver mGroupResolver = tag -> tag;
+        private final Map<String, Integer> mWeights = new HashMap<>();
+        private int mDefaultWeight = 1;
+    }
+
+// MARK: - Variables
+
+    private final GroupResolver mGroupResolver;
+
+    private final Map<String, Integer> mWeights;
+
+    private final int mDefaultWeight;
+}
@@ -0,0 +1,161 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Decides when a duplicate of a slow idempotent request is sent, and limits the share of such duplicates
+ * so that hedging can't amplify an overload.
+ */
+public final class HedgingPolicy
+{
+// MARK: - Construction
+
+    private HedgingPolicy(@NotNull Builder builder) {
+        // Init instance variables
+        mDelay = builder.mDelay;
+        mPercentile = builder.mPercentile;
+        mBudgetRatio = builder.mBudgetRatio;
+    }
+
+// MARK: - Properties
+
+    /**
+     * The delay in milliseconds after which a duplicate request is sent,
+     * used until enough latencies are observed if the percentile is set.
+     */
+    public long delay() {
+        return mDelay;
+    }
+
+    /**
+     * The percentile of the recent latencies used as the delay, from 0 to 1, or 0 if the static delay is used.
+     */
+    public double percentile() {
+        return mPercentile;
+    }
+
+    /**
+     * The maximum number of duplicate requests per request, e.g. 0.05 for at most 5% extra requests.
+     */
+    public double budgetRatio() {
+        return mBudgetRatio;
+    }
+
+// MARK: - Internal Methods
+
+    /**
+     * Returns the delay in milliseconds after which a duplicate of a new request is sent,
+     * and earns the budget for it.
+     */
+    long onRequest() {
+        synchronized (mLock) {
+            mBudget = Math.min(mBudget + mBudgetRatio, MAX_BUDGET);
+
+            // Use the percentile of the recent latencies once there are enough of them
+            if (mPercentile > 0 && mLatencyCount >= MIN_LATENCY_COUNT) {
+                long[] latencies = Arrays.copyOf(mLatencies, mLatencyCount);
+                Arrays.sort(latencies);
+                return latencies[(int) Math.min(Math.ceil(mPercentile * mLatencyCount) - 1, mLatencyCount - 1)];
+            }
+            return mDelay;
+        }
+    }
+
+    /**
+     * Spends the budget on a duplicate request. Returns {@code false} if the budget is exhausted.
+     */
+    boolean tryAcquireHedge() {
+        synchronized (mLock) {
+            if (mBudget >= 1) {
+                mBudget -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Records the latency in milliseconds of a completed request.
+     */
+    void recordLatency(long latency) {
+        synchronized (mLock) {
+            mLatencies[mLatencyIndex] = latency;
+            mLatencyIndex = (mLatencyIndex + 1) % mLatencies.length;
+            mLatencyCount = Math.min(mLatencyCount + 1, mLatencies.length);
+        }
+    }
+
+// MARK: - Inner Types
+
+    public static final class Builder
+    {
+        public Builder() {
+            // Do nothing
+        }
+
+        /**
+         * Sets the delay in milliseconds after which a duplicate request is sent.
+         */
+        public @NotNull Builder delay(long delay) {
+            Guard.isTrue(delay >= 0, "delay < 0");
+            mDelay = delay;
+            return this;
+        }
+
+        /**
+         * Sets the percentile of the recent latencies used as the delay, from 0 to 1.
+         */
+        public @NotNull Builder percentile(double percentile) {
+            Guard.isTrue(percentile > 0 && percentile < 1, "percentile is out of (0, 1)");
+            mPercentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of duplicate requests per request, e.g. 0.05 for at most 5% extra requests.
+         */
+        public @NotNull Builder budgetRatio(double budgetRatio) {
+            Guard.isTrue(budgetRatio >= 0 && budgetRatio <= 1, "budgetRatio is out of [0, 1]");
+            mBudgetRatio = budgetRatio;
+            return this;
+        }
+
+        public @NotNull HedgingPolicy build() {
+            return new HedgingPolicy(this);
+        }
+
+        private long mDelay = 1000;
+        private double mPercentile = 0;
+        private double mBudgetRatio = 0.05;
+    }
+
+// MARK: - Constants
+
+    private static final int MAX_LATENCY_COUNT = 128;
+    private static final int MIN_LATENCY_COUNT = 20;
+
+    // The number of duplicate requests which may be sent in a burst
+    private static final double MAX_BUDGET = 10;
+
+// MARK: - Variables
+
+    private final Object mLock = new Object();
+
+    private final long mDelay;
+
+    private final double mPercentile;
+
+    private final double mBudgetRatio;
+
+    private final long[] mLatencies = new long[MAX_LATENCY_COUNT];
+
+    private int mLatencyIndex;
+
+    private int mLatencyCount;
+
+    private double mBudget;
+}
@@ -0,0 +1,69 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The number of queued and active tasks of a single host, and the number of tasks it may run concurrently.
+ */
+public final class HostQueueStats
+{
+// MARK: - Construction
+
+    HostQueueStats(@NotNull String host, int queuedTaskCount, int activeTaskCount, int limit) {
+        // Init instance variables
+        mHost = host;
+        mQueuedTaskCount = queuedTaskCount;
+        mActiveTaskCount = activeTaskCount;
+        mLimit = limit;
+    }
+
+// MARK: - Properties
+
+    /**
+     * The scheme, host and port of the tasks' URI.
+     */
+    public @NotNull String host() {
+        return mHost;
+    }
+
+    /**
+     * The number of tasks waiting in the queue.
+     */
+    public int queuedTaskCount() {
+        return mQueuedTaskCount;
+    }
+
+    /**
+     * The number of tasks running on the worker threads.
+     */
+    public int activeTaskCount() {
+        return mActiveTaskCount;
+    }
+
+    /**
+     * The current adaptive limit of the tasks running concurrently.
+     */
+    public int limit() {
+        return mLimit;
+    }
+
+    @Override
+    public String toString() {
+        return "HostQueueStats{" +
+                "host=" + mHost +
+                ", queued=" + mQueuedTaskCount +
+                ", active=" + mActiveTaskCount +
+                ", limit=" + mLimit +
+                '}';
+    }
+
+// MARK: - Variables
+
+    private final @NotNull String mHost;
+
+    private final int mQueuedTaskCount;
+
+    private final int mActiveTaskCount;
+
+    private final int mLimit;
+}
@@ -0,0 +1,11 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+public interface HttpResultCallback
+{
+    /**
+     * Called when the HTTP response is received or the request could not be executed.
+     */
+    void onResult(@NotNull HttpResult result);
+}
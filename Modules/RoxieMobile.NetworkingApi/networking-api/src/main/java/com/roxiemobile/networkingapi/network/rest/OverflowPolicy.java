@@ -0,0 +1,24 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+/**
+ * What {@link TaskQueue} does with a task enqueued when its queue is full.
+ */
+public enum OverflowPolicy
+{
+    /**
+     * Blocks the enqueuing thread until the queue has room, or fails the task when the overflow timeout elapses.
+     * Should not be used with the tasks enqueued on the UI thread.
+     */
+    BLOCK,
+
+    /**
+     * Fails the newest queued task of the lowest priority to make room, or the task itself
+     * when no queued task has a lower priority.
+     */
+    SHED_LOWEST_PRIORITY,
+
+    /**
+     * Fails the task at once.
+     */
+    FAIL
+}
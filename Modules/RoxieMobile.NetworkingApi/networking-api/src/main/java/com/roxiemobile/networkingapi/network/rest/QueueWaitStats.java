@@ -0,0 +1,87 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The queue wait statistics of tasks of a single priority class.
+ */
+public final class QueueWaitStats
+{
+// MARK: - Construction
+
+    QueueWaitStats(@NotNull TaskPriority priority, int queuedTaskCount, long startedTaskCount, long totalWaitTime, long maxWaitTime) {
+        // Init instance variables
+        mPriority = priority;
+        mQueuedTaskCount = queuedTaskCount;
+        mStartedTaskCount = startedTaskCount;
+        mTotalWaitTime = totalWaitTime;
+        mMaxWaitTime = maxWaitTime;
+    }
+
+// MARK: - Properties
+
+    /**
+     * The priority class of the tasks.
+     */
+    public @NotNull TaskPriority priority() {
+        return mPriority;
+    }
+
+    /**
+     * The number of tasks waiting in the queue.
+     */
+    public int queuedTaskCount() {
+        return mQueuedTaskCount;
+    }
+
+    /**
+     * The number of tasks taken from the queue.
+     */
+    public long startedTaskCount() {
+        return mStartedTaskCount;
+    }
+
+    /**
+     * The total time in milliseconds the started tasks waited in the queue.
+     */
+    public long totalWaitTime() {
+        return mTotalWaitTime;
+    }
+
+    /**
+     * The longest time in milliseconds a started task waited in the queue.
+     */
+    public long maxWaitTime() {
+        return mMaxWaitTime;
+    }
+
+    /**
+     * The average time in milliseconds the started tasks waited in the queue.
+     */
+    public long averageWaitTime() {
+        return (mStartedTaskCount > 0) ? (mTotalWaitTime / mStartedTaskCount) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueWaitStats{" +
+                "priority=" + mPriority +
+                ", queued=" + mQueuedTaskCount +
+                ", started=" + mStartedTaskCount +
+                ", averageWaitTime=" + averageWaitTime() +
+                ", maxWaitTime=" + mMaxWaitTime +
+                '}';
+    }
+
+// MARK: - Variables
+
+    private final @NotNull TaskPriority mPriority;
+
+    private final int mQueuedTaskCount;
+
+    private final long mStartedTaskCount;
+
+    private final long mTotalWaitTime;
+
+    private final long mMaxWaitTime;
+}
@@ -0,0 +1,259 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.networkingapi.network.rest.request.RequestEntity;
+import com.roxiemobile.networkingapi.network.rest.routing.HttpRoute;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket which limits the rate at which the matching tasks are sent. A task takes its token when it's
+ * started on a worker thread, and each of its retries takes another one. A task which finds the bucket empty
+ * waits until its token is refilled, without taking a worker thread in the meantime.
+ * <p>
+ * Attach the limiter with {@link TaskQueue#addRateLimiter(RateLimiter)}.
+ */
+public final class RateLimiter
+{
+// MARK: - Construction
+
+    private RateLimiter(@NotNull Scope scope, @NotNull String key, double rate, int burst) {
+        Guard.notEmpty(key, "key is empty");
+        Guard.isTrue(rate > 0, "rate <= 0");
+        Guard.isTrue(burst > 0, "burst <= 0");
+
+        // Init instance variables
+        mScope = scope;
+        mKey = key;
+        mRate = rate;
+        mBurst = burst;
+        mTokens = burst;
+        mRefillTime = System.nanoTime();
+    }
+
+    /**
+     * Creates a limiter for the tasks sent to the host.
+     *
+     * @param rate  The number of tasks per second.
+     * @param burst The number of tasks which may be sent at once after a pause.
+     */
+    public static @NotNull RateLimiter forHost(@NotNull String host, double rate, int burst) {
+        return new RateLimiter(Scope.HOST, host, rate, burst);
+    }
+
+    /**
+     * Creates a limiter for the tasks whose URI starts with the route. The route must match whole path segments,
+     * so the route {@code /v1} doesn't apply to {@code /v10}.
+     *
+     * @param rate  The number of tasks per second.
+     * @param burst The number of tasks which may be sent at once after a pause.
+     */
+    public static @NotNull RateLimiter forRoute(@NotNull HttpRoute route, double rate, int burst) {
+        Guard.notNull(route, "route is null");
+        return new RateLimiter(Scope.ROUTE, route.toURI().toString(), rate, burst);
+    }
+
+    /**
+     * Creates a limiter for the tasks with the tag.
+     *
+     * @param rate  The number of tasks per second.
+     * @param burst The number of tasks which may be sent at once after a pause.
+     */
+    public static @NotNull RateLimiter forTag(@NotNull String tag, double rate, int burst) {
+        return new RateLimiter(Scope.TAG, tag, rate, burst);
+    }
+
+// MARK: - Properties
+
+    /**
+     * The number of tasks per second.
+     */
+    public double rate() {
+        return mRate;
+    }
+
+    /**
+     * The number of tasks which may be sent at once after a pause.
+     */
+    public int burst() {
+        return mBurst;
+    }
+
+    /**
+     * The number of tasks and retries which passed the limiter.
+     */
+    public long acquiredCount() {
+        synchronized (mLock) {
+            return mAcquiredCount;
+        }
+    }
+
+    /**
+     * The number of tasks and retries which were delayed by the limiter.
+     */
+    public long throttledCount() {
+        synchronized (mLock) {
+            return mThrottledCount;
+        }
+    }
+
+    /**
+     * The total time in milliseconds the tasks were delayed by the limiter.
+     */
+    public long totalWaitTime() {
+        synchronized (mLock) {
+            return TimeUnit.NANOSECONDS.toMillis(mTotalWaitTime);
+        }
+    }
+
+    /**
+     * The longest time in milliseconds a task was delayed by the limiter.
+     */
+    public long maxWaitTime() {
+        synchronized (mLock) {
+            return TimeUnit.NANOSECONDS.toMillis(mMaxWaitTime);
+        }
+    }
+
+// MARK: - Internal Methods
+
+    /**
+     * Returns whether the limiter applies to the task.
+     */
+    boolean matches(@NotNull Task<?, ?> task) {
+        if (mScope == Scope.TAG) {
+            return mKey.equals(task.tag());
+        }
+
+        RequestEntity<?> entity = task.requestEntity();
+        URI uri = (entity != null) ? entity.uri() : null;
+
+        if (uri == null) {
+            return false;
+        }
+        return (mScope == Scope.HOST) ? mKey.equalsIgnoreCase(uri.getHost()) : matchesRoute(uri.toString());
+    }
+
+    /**
+     * Returns the time in nanoseconds until the bucket has a token, or zero if it has one now.
+     */
+    long waitTime(long now) {
+        synchronized (mLock) {
+            refill(now);
+            return (mTokens >= 1) ? 0 : (long) Math.ceil((1 - mTokens) * NANOS_PER_SECOND / mRate);
+        }
+    }
+
+    /**
+     * Takes a token from the bucket for a task which waited the given time in nanoseconds for it.
+     */
+    void acquire(long now, long waitTime) {
+        synchronized (mLock) {
+            // The tokens below zero are owed by the tasks which took them at the same time from another queue
+            refill(now);
+            mTokens -= 1;
+
+            // Update wait statistics
+            mAcquiredCount++;
+            if (waitTime > 0) {
+                mThrottledCount++;
+                mTotalWaitTime += waitTime;
+                mMaxWaitTime = Math.max(mMaxWaitTime, waitTime);
+            }
+        }
+    }
+
+    /**
+     * Returns the time in nanoseconds until every limiter has a token, or zero if they all have one now.
+     */
+    static long waitTime(@NotNull List<RateLimiter> rateLimiters, long now) {
+        long waitTime = 0;
+
+        for (RateLimiter rateLimiter : rateLimiters) {
+            waitTime = Math.max(waitTime, rateLimiter.waitTime(now));
+        }
+        return waitTime;
+    }
+
+    /**
+     * Takes a token from every limiter for a task which waited the given time in nanoseconds for them.
+     */
+    static void acquire(@NotNull List<RateLimiter> rateLimiters, long now, long waitTime) {
+        for (RateLimiter rateLimiter : rateLimiters) {
+            rateLimiter.acquire(now, waitTime);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimiter{" +
+                "scope=" + mScope +
+                ", key=" + mKey +
+                ", rate=" + mRate +
+                ", burst=" + mBurst +
+                '}';
+    }
+
+// MARK: - Private Methods
+
+    private boolean matchesRoute(@NotNull String uri) {
+        if (!uri.startsWith(mKey)) {
+            return false;
+        }
+
+        // The route ends at a path segment boundary of the URI
+        if (uri.length() == mKey.length() || mKey.endsWith("/")) {
+            return true;
+        }
+
+        char ch = uri.charAt(mKey.length());
+        return ch == '/' || ch == '?' || ch == '#';
+    }
+
+    private void refill(long now) {
+        // Guarded by mLock
+        if (now - mRefillTime > 0) {
+            mTokens = Math.min(mBurst, mTokens + (now - mRefillTime) * mRate / NANOS_PER_SECOND);
+            mRefillTime = now;
+        }
+    }
+
+// MARK: - Inner Types
+
+    private enum Scope
+    {
+        HOST, ROUTE, TAG
+    }
+
+// MARK: - Constants
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+// MARK: - Variables
+
+    private final Object mLock = new Object();
+
+    private final @NotNull Scope mScope;
+
+    private final @NotNull String mKey;
+
+    private final double mRate;
+
+    private final int mBurst;
+
+    private double mTokens;
+
+    private long mRefillTime;
+
+    private long mAcquiredCount;
+
+    private long mThrottledCount;
+
+    private long mTotalWaitTime;
+
+    private long mMaxWaitTime;
+}
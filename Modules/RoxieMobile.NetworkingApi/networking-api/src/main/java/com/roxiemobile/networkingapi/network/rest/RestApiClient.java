@@ -15,33 +15,66 @@ import com.roxiemobile.networkingapi.network.http.HttpHeaders;
 import com.roxiemobile.networkingapi.network.http.HttpStatus;
 import com.roxiemobile.networkingapi.network.http.InMemoryCookieStore;
 import com.roxiemobile.networkingapi.network.http.MediaType;
+import com.roxiemobile.networkingapi.network.rest.interceptor.SafeHttpLoggingInterceptor.StreamedResponse;
 import com.roxiemobile.networkingapi.network.rest.request.ByteArrayBody;
 import com.roxiemobile.networkingapi.network.rest.request.RequestEntity;
 import com.roxiemobile.networkingapi.network.rest.response.BasicResponseEntity;
 import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.error.TransportLayerError;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.CircuitBreakerOpenException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConnectionException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.DeadlineExceededException;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
 
 import okhttp3.CertificatePinner;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Cookie;
 import okhttp3.CookieJar;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
 import okhttp3.Headers;
+import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okhttp3.internal.http.UnrepeatableRequestBody;
+import okio.BufferedSink;
 
 public final class RestApiClient {
 
@@ -50,6 +83,8 @@ public final class RestApiClient {
     private RestApiClient(Builder builder) {
         // Init instance
         mOptions = builder.mOptions.clone();
+        mDeadline = builder.mDeadline;
+        mCallListener = builder.mCallListener;
     }
 
 // MARK: - Methods
@@ -82,24 +117,244 @@ public final class RestApiClient {
         return execute(MethodName.OPTIONS, entity);
     }
 
-// MARK: - Private Methods
+    public @NotNull Cancellable get(@NotNull RequestEntity<HttpBody> entity, @NotNull HttpResultCallback callback) {
+        return enqueue(MethodName.GET, entity, callback);
+    }
+
+    public @NotNull Cancellable post(@NotNull RequestEntity<HttpBody> entity, @NotNull HttpResultCallback callback) {
+        return enqueue(MethodName.POST, entity, callback);
+    }
+
+    public @NotNull Cancellable put(@NotNull RequestEntity<HttpBody> entity, @NotNull HttpResultCallback callback) {
+        return enqueue(MethodName.PUT, entity, callback);
+    }
+
+    public @NotNull Cancellable patch(@NotNull RequestEntity<HttpBody> entity, @NotNull HttpResultCallback callback) {
+        return enqueue(MethodName.PATCH, entity, callback);
+    }
+
+    public @NotNull Cancellable delete(@NotNull RequestEntity<HttpBody> entity, @NotNull HttpResultCallback callback) {
+        return enqueue(MethodName.DELETE, entity, callback);
+    }
+
+    public @NotNull Cancellable head(@NotNull RequestEntity<HttpBody> entity, @NotNull HttpResultCallback callback) {
+        return enqueue(MethodName.HEAD, entity, callback);
+    }
+
+    public @NotNull Cancellable options(@NotNull RequestEntity<HttpBody> entity, @NotNull HttpResultCallback callback) {
+        return enqueue(MethodName.OPTIONS, entity, callback);
+    }
+
+    public @NotNull CallFuture<ResponseEntity<byte[]>> getAsync(@NotNull RequestEntity<HttpBody> entity) {
+        return executeAsync(MethodName.GET, entity);
+    }
+
+    public @NotNull CallFuture<ResponseEntity<byte[]>> postAsync(@NotNull RequestEntity<HttpBody> entity) {
+        return executeAsync(MethodName.POST, entity);
+    }
+
+    public @NotNull CallFuture<ResponseEntity<byte[]>> putAsync(@NotNull RequestEntity<HttpBody> entity) {
+        return executeAsync(MethodName.PUT, entity);
+    }
+
+    public @NotNull CallFuture<ResponseEntity<byte[]>> patchAsync(@NotNull RequestEntity<HttpBody> entity) {
+        return executeAsync(MethodName.PATCH, entity);
+    }
+
+    public @NotNull CallFuture<ResponseEntity<byte[]>> deleteAsync(@NotNull RequestEntity<HttpBody> entity) {
+        return executeAsync(MethodName.DELETE, entity);
+    }
+
+    public @NotNull CallFuture<ResponseEntity<byte[]>> headAsync(@NotNull RequestEntity<HttpBody> entity) {
+        return executeAsync(MethodName.HEAD, entity);
+    }
 
-    private HttpResult execute(@NotNull String method, @NotNull RequestEntity<HttpBody> entity) {
+    public @NotNull CallFuture<ResponseEntity<byte[]>> optionsAsync(@NotNull RequestEntity<HttpBody> entity) {
+        return executeAsync(MethodName.OPTIONS, entity);
+    }
+
+    public @NotNull StreamingHttpResult getStreaming(@NotNull RequestEntity<HttpBody> entity) {
+        return executeStreaming(MethodName.GET, entity);
+    }
+
+    public @NotNull StreamingHttpResult postStreaming(@NotNull RequestEntity<HttpBody> entity) {
+        return executeStreaming(MethodName.POST, entity);
+    }
+
+    public @NotNull StreamingHttpResult putStreaming(@NotNull RequestEntity<HttpBody> entity) {
+        return executeStreaming(MethodName.PUT, entity);
+    }
+
+    public @NotNull StreamingHttpResult patchStreaming(@NotNull RequestEntity<HttpBody> entity) {
+        return executeStreaming(MethodName.PATCH, entity);
+    }
+
+    public @NotNull StreamingHttpResult deleteStreaming(@NotNull RequestEntity<HttpBody> entity) {
+        return executeStreaming(MethodName.DELETE, entity);
+    }
+
+    public @NotNull StreamingHttpResult optionsStreaming(@NotNull RequestEntity<HttpBody> entity) {
+        return executeStreaming(MethodName.OPTIONS, entity);
+    }
+
+    /**
+     * Sends the request with the given method, e.g. {@link MethodName#GET}, and returns its response.
+     */
+    public @NotNull HttpResult execute(@NotNull String method, @NotNull RequestEntity<HttpBody> entity) {
         Guard.notEmpty(method, "method is empty");
         Guard.notNull(entity, "entity is null");
 
         // Execute HTTP request
-        return execute(newRequest(method, entity), entity.cookieStore());
+        CookieStore cookieStore = (entity.cookieStore() != null) ? entity.cookieStore() : new InMemoryCookieStore();
+        Request request = newRequest(method, entity, cookieStore);
+
+        // Race a duplicate request against a slow one, unless the body can be sent once only
+        if (isHedged(method) && isReplayable(entity.body())) {
+            return executeHedged(request, cookieStore);
+        }
+        return execute(request, cookieStore);
+    }
+
+    /**
+     * Sends the request with the given method, e.g. {@link MethodName#GET}, without blocking the calling thread,
+     * and notifies the callback on a thread of the HTTP client when its response arrives.
+     */
+    public @NotNull Cancellable enqueue(
+            @NotNull String method,
+            @NotNull RequestEntity<HttpBody> entity,
+            @NotNull HttpResultCallback callback
+    ) {
+        Guard.notEmpty(method, "method is empty");
+        Guard.notNull(entity, "entity is null");
+        Guard.notNull(callback, "callback is null");
+
+        // Create HTTP request
+        CookieStore cookieStore = (entity.cookieStore() != null) ? entity.cookieStore() : new InMemoryCookieStore();
+        Request request = newRequest(method, entity, cookieStore);
+
+        // Race a duplicate request against a slow one, unless the body can be sent once only
+        if (isHedged(method) && isReplayable(entity.body())) {
+            return new HedgedCall(request, cookieStore, false, callback).start();
+        }
+
+        okhttp3.Call call = newCall(newClient(), request);
+
+        // Execute HTTP request without blocking the calling thread
+        call.enqueue(new okhttp3.Callback() {
+
+            @Override
+            public void onResponse(@NotNull okhttp3.Call call, @NotNull Response response) {
+                callback.onResult(newHttpResult(response, cookieStore));
+            }
+
+            @Override
+            public void onFailure(@NotNull okhttp3.Call call, @NotNull IOException ex) {
+                callback.onResult(newHttpResult(ex, cookieStore));
+            }
+        });
+
+        // Done
+        return cancellable(call);
+    }
+
+    /**
+     * Sends the request with the given method, e.g. {@link MethodName#GET}, and returns its response without
+     * reading the body, whatever the HTTP status is. The body of a successful result must be closed once it is read.
+     */
+    public @NotNull StreamingHttpResult executeStreaming(@NotNull String method, @NotNull RequestEntity<HttpBody> entity) {
+        Guard.notEmpty(method, "method is empty");
+        Guard.notNull(entity, "entity is null");
+
+        // The requests are not hedged, since the caller reads the body of a single response
+        CookieStore cookieStore = (entity.cookieStore() != null) ? entity.cookieStore() : new InMemoryCookieStore();
+        Request request = newRequest(method, entity, cookieStore).newBuilder()
+                // Keep the logging interceptor from reading the body ahead of the caller
+                .tag(StreamedResponse.class, StreamedResponse.INSTANCE)
+                .build();
+        StreamingHttpResult result;
+
+        try {
+            Response response;
+            try {
+                // Create and execute HTTP request
+                okhttp3.Call call = newCall(newClient(), request);
+                onCallStart(cancellable(call));
+                response = call.execute();
+            }
+            catch (HttpResponseException ex) {
+                Logger.e(TAG, ex);
+
+                // Handle interrupted HTTP requests
+                response = ex.getResponse();
+            }
+
+            try {
+                result = StreamingHttpResult.success(newStreamingResponseEntity(response, cookieStore));
+            }
+            catch (RuntimeException ex) {
+                // Release the connection of the response which can't be handed over
+                response.close();
+                throw ex;
+            }
+        }
+        catch (Exception ex) {
+            Logger.e(TAG, ex);
+
+            // Handle any other errors
+            result = StreamingHttpResult.failure(deadlineError(ex));
+        }
+
+        // Done
+        return result;
+    }
+
+// MARK: - Properties
+
+    /**
+     * Returns the usage statistics of the connection pool shared by the clients with the same pool options.
+     */
+    public @NotNull ConnectionPoolStats connectionPoolStats() {
+        return connectionPoolListener(mOptions).stats();
+    }
+
+// MARK: - Private Methods
+
+    private HttpResult executeHedged(Request request, CookieStore cookieStore) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<HttpResult> result = new AtomicReference<>();
+
+        // Wait for the first response of the hedged requests
+        Cancellable cancellable = new HedgedCall(request, cookieStore, true, httpResult -> {
+            result.set(httpResult);
+            latch.countDown();
+        }).start();
+        onCallStart(cancellable);
+
+        try {
+            latch.await();
+        }
+        catch (InterruptedException ex) {
+            Logger.e(TAG, ex);
+            cancellable.cancel();
+
+            // Restore the interrupted status
+            Thread.currentThread().interrupt();
+            return HttpResult.failure(ex);
+        }
+        return result.get();
     }
 
     private HttpResult execute(Request request, CookieStore cookieStore) {
-        cookieStore = (cookieStore != null) ? cookieStore : new InMemoryCookieStore();
         HttpResult result;
 
         try {
             try {
                 // Create and execute HTTP request
-                Response response = newClient(cookieStore).newCall(request).execute();
+                okhttp3.Call call = newCall(newClient(), request);
+                onCallStart(cancellable(call));
+
+                // The body read fails at once if the call is cancelled in the meantime
+                Response response = call.execute();
                 result = HttpResult.success(newResponseEntity(response, cookieStore));
             }
             catch (HttpResponseException ex) {
@@ -113,14 +368,125 @@ public final class RestApiClient {
             Logger.e(TAG, ex);
 
             // Handle any other errors
-            result = HttpResult.failure(ex);
+            result = HttpResult.failure(deadlineError(ex));
         }
 
         // Done
         return result;
     }
 
-    private @NotNull Request newRequest(@NotNull String method, @NotNull RequestEntity<HttpBody> entity) {
+    private @NotNull CallFuture<ResponseEntity<byte[]>> executeAsync(
+            @NotNull String method,
+            @NotNull RequestEntity<HttpBody> entity
+    ) {
+        final CallFuture<ResponseEntity<byte[]>> future = new CallFuture<>();
+
+        // Complete the future with the HTTP response of any status
+        Cancellable cancellable = enqueue(method, entity, result -> {
+            if (result.isSuccess()) {
+                future.complete(result.value());
+            }
+            else {
+                Throwable cause = result.error();
+
+                // Wrap up HTTP connection error
+                if (cause instanceof IOException && !(cause instanceof CircuitBreakerOpenException)
+                        && !(cause instanceof DeadlineExceededException)) {
+                    cause = new ConnectionException(cause);
+                }
+                future.completeExceptionally(new TransportLayerError(cause));
+            }
+        });
+
+        // Done
+        return future.doOnCancel(cancellable);
+    }
+
+    private @NotNull HttpResult newHttpResult(@NotNull Response response, @NotNull CookieStore cookieStore) {
+        HttpResult result;
+
+        try {
+            result = HttpResult.success(newResponseEntity(response, cookieStore));
+        }
+        catch (Exception ex) {
+            Logger.e(TAG, ex);
+
+            // Handle any other errors
+            result = HttpResult.failure(ex);
+        }
+        return result;
+    }
+
+    private @NotNull HttpResult newHttpResult(@NotNull IOException ex, @NotNull CookieStore cookieStore) {
+        Logger.e(TAG, ex);
+        HttpResult result;
+
+        try {
+            if (ex instanceof HttpResponseException) {
+                // Handle interrupted HTTP requests
+                result = HttpResult.success(newResponseEntity(((HttpResponseException) ex).getResponse(), cookieStore));
+            }
+            else {
+                result = HttpResult.failure(deadlineError(ex));
+            }
+        }
+        catch (Exception e) {
+            Logger.e(TAG, e);
+
+            // Handle any other errors
+            result = HttpResult.failure(e);
+        }
+        return result;
+    }
+
+    private @NotNull okhttp3.Call newCall(@NotNull OkHttpClient client, @NotNull Request request) {
+        okhttp3.Call call = client.newCall(request);
+
+        // Bound the whole call, including the redirects and the body read, by the deadline
+        if (mDeadline != 0) {
+            long timeout = mDeadline - System.nanoTime();
+            call.timeout().timeout(Math.max(timeout, 1), TimeUnit.NANOSECONDS);
+        }
+        return call;
+    }
+
+    private static @NotNull Cancellable cancellable(@NotNull okhttp3.Call call) {
+        return () -> {
+            boolean result = !call.isCanceled();
+            call.cancel();
+            return result;
+        };
+    }
+
+    private void onCallStart(@NotNull Cancellable call) {
+        if (mCallListener != null) {
+            mCallListener.onCallStart(call);
+        }
+    }
+
+    private @NotNull Exception deadlineError(@NotNull Exception ex) {
+        // Replace the timeout of the call with a clear error
+        if (ex instanceof InterruptedIOException && !(ex instanceof DeadlineExceededException)
+                && mDeadline != 0 && System.nanoTime() - mDeadline >= 0) {
+            return new DeadlineExceededException(ex);
+        }
+        return ex;
+    }
+
+    private static boolean isReplayable(@Nullable HttpBody body) {
+        return !(body instanceof StreamingHttpBody) || ((StreamingHttpBody) body).isReplayable();
+    }
+
+    private boolean isHedged(@NotNull String method) {
+        // Only the idempotent requests without a body may be sent twice
+        return mOptions.mHedgingPolicy != null && HEDGED_METHODS.contains(method);
+    }
+
+    private @NotNull Request newRequest(
+            @NotNull String method,
+            @NotNull RequestEntity<HttpBody> entity,
+            @NotNull CookieStore cookieStore
+    ) {
         Request.Builder instance = new Request.Builder();
 
         // Create request body
@@ -134,7 +500,17 @@ public final class RestApiClient {
 
         if (entityBody != null) {
             okhttp3.MediaType mediaType = okhttp3.MediaType.parse(entityBody.mediaType().toString());
-            requestBody = RequestBody.create(mediaType, entityBody.body());
+
+            // Write the streaming body straight to the connection
+            if (entityBody instanceof StreamingHttpBody) {
+                StreamingHttpBody streamingBody = (StreamingHttpBody) entityBody;
+                requestBody = streamingBody.isReplayable()
+                        ? new StreamingRequestBody(mediaType, streamingBody)
+                        : new OneShotRequestBody(mediaType, streamingBody);
+            }
+            else {
+                requestBody = RequestBody.create(mediaType, entityBody.body());
+            }
         }
 
         // Build HTTP request
@@ -142,7 +518,9 @@ public final class RestApiClient {
 
         instance.method(method, requestBody)
                 .url(entity.uri().toString())
-                .headers(mapping(entityHeaders));
+                .headers(mapping(entityHeaders))
+                // Pass the cookie store to the shared HTTP client
+                .tag(CookieStore.class, cookieStore);
 
         if (requestBody != null) {
             okhttp3.MediaType contentType = requestBody.contentType();
@@ -156,49 +534,85 @@ public final class RestApiClient {
         return instance.build();
     }
 
-    private @NotNull OkHttpClient newClient(@NotNull CookieStore cookieStore) {
-        Guard.notNull(cookieStore, "cookieStore is null");
+    private @NotNull OkHttpClient newClient() {
+        OkHttpClient client;
+
+        // Reuse an HTTP client built for the same options
+        synchronized (sHttpClients) {
+            client = sHttpClients.get(mOptions);
+        }
 
-        CookieManager cookieManager = new CookieManager(cookieStore, CookiePolicy.ACCEPT_ALL);
-        CookieJar cookieJar = new CompatJavaNetCookieJar(cookieManager);
+        if (client == null) {
+            client = newClient(mOptions);
+
+            synchronized (sHttpClients) {
+                OkHttpClient other = sHttpClients.get(mOptions);
+
+                if (other != null) {
+                    client = other;
+                }
+                else {
+                    sHttpClients.put(mOptions, client);
+                }
+            }
+        }
+
+        // Done
+        return client;
+    }
+
+    private static @NotNull OkHttpClient newClient(@NotNull Options options) {
+        Guard.notNull(options, "options is null");
 
         // Retrofit 2.0: The biggest update yet on the best HTTP Client Library for Android
         // @link http://inthecheesefactory.com/blog/retrofit-2.0/en
         // +> Certificate Pinning
         // +> RxJava Integration with CallAdapter
 
-        OkHttpClient.Builder builder = SHARED_HTTP_CLIENT.newBuilder()
-                // Set the timeout until a connection is established
-                .connectTimeout(mOptions.mConnectionTimeout, TimeUnit.MILLISECONDS)
+        OkHttpClient.Builder builder = SHARED_HTTP_CLIENT.newBuilder();
+
+        // Fail fast the calls to the hosts which are down
+        if (options.mCircuitBreakers != null) {
+            builder.addInterceptor(new CircuitBreakerInterceptor(options.mCircuitBreakers));
+        }
+
+        // Set the timeout until a connection is established
+        builder.connectTimeout(options.mConnectionTimeout, TimeUnit.MILLISECONDS)
                 // Set the default socket timeout which is the timeout for waiting for data
-                .readTimeout(mOptions.mReadTimeout, TimeUnit.MILLISECONDS)
-                // Set the handler that can accept cookies from incoming HTTP responses and provides cookies to outgoing HTTP requests
-                .cookieJar(cookieJar);
+                .readTimeout(options.mReadTimeout, TimeUnit.MILLISECONDS)
+                // Cookies are handled by the cookie store passed along with each request
+                .addNetworkInterceptor(COOKIE_STORE_INTERCEPTOR);
+
+        // Share the connection pool and dispatcher between clients with the same limits
+        ConnectionPoolListener poolListener = connectionPoolListener(options);
+        builder.connectionPool(poolListener.connectionPool())
+                .eventListener(poolListener)
+                .dispatcher(dispatcher(options));
 
         // Set a application interceptors
-        Stream.of(nullToEmpty(mOptions.mInterceptors))
+        Stream.of(nullToEmpty(options.mInterceptors))
                 .filter(Objects::nonNull).forEach(builder::addInterceptor);
 
         // Set a network interceptors
-        Stream.of(nullToEmpty(mOptions.mNetworkInterceptors))
+        Stream.of(nullToEmpty(options.mNetworkInterceptors))
                 .filter(Objects::nonNull).forEach(builder::addNetworkInterceptor);
 
         // Configure secure HTTPS connections
-        if (mOptions.mCertificatePinner != null) {
-            builder.certificatePinner(mOptions.mCertificatePinner);
+        if (options.mCertificatePinner != null) {
+            builder.certificatePinner(options.mCertificatePinner);
         }
 
-        if (mOptions.mHostnameVerifier != null) {
-            builder.hostnameVerifier(mOptions.mHostnameVerifier);
+        if (options.mHostnameVerifier != null) {
+            builder.hostnameVerifier(options.mHostnameVerifier);
         }
 
-        if (mOptions.mSSLSocketFactory != null) {
-            if (mOptions.mTrustManager != null) {
-                builder.sslSocketFactory(mOptions.mSSLSocketFactory, mOptions.mTrustManager);
+        if (options.mSSLSocketFactory != null) {
+            if (options.mTrustManager != null) {
+                builder.sslSocketFactory(options.mSSLSocketFactory, options.mTrustManager);
             }
             else {
                 //noinspection deprecation
-                builder.sslSocketFactory(mOptions.mSSLSocketFactory);
+                builder.sslSocketFactory(options.mSSLSocketFactory);
             }
         }
 
@@ -206,17 +620,86 @@ public final class RestApiClient {
         return builder.build();
     }
 
+    private static @NotNull ConnectionPoolListener connectionPoolListener(@NotNull Options options) {
+        String key = options.mMaxIdleConnections + "/" + options.mKeepAliveDuration;
+
+        synchronized (sConnectionPools) {
+            ConnectionPoolListener listener = sConnectionPools.get(key);
+
+            // Create a new connection pool
+            if (listener == null) {
+                ConnectionPool pool = new ConnectionPool(options.mMaxIdleConnections,
+                        options.mKeepAliveDuration, TimeUnit.MILLISECONDS);
+
+                listener = new ConnectionPoolListener(pool);
+                sConnectionPools.put(key, listener);
+            }
+            return listener;
+        }
+    }
+
+    private static @NotNull Dispatcher dispatcher(@NotNull Options options) {
+        String key = options.mMaxRequests + "/" + options.mMaxRequestsPerHost;
+
+        synchronized (sDispatchers) {
+            Dispatcher dispatcher = sDispatchers.get(key);
+
+            // Create a new dispatcher
+            if (dispatcher == null) {
+                dispatcher = new Dispatcher();
+                dispatcher.setMaxRequests(options.mMaxRequests);
+                dispatcher.setMaxRequestsPerHost(options.mMaxRequestsPerHost);
+                sDispatchers.put(key, dispatcher);
+            }
+            return dispatcher;
+        }
+    }
+
     private @NotNull ResponseEntity<byte[]> newResponseEntity(
             @NotNull Response response,
             @NotNull CookieStore cookieStore
     ) throws IOException {
 
+        BasicResponseEntity.Builder<byte[]> entityBuilder = newResponseEntityBuilder(response, cookieStore);
+
+        // Set response body
+        ResponseBody body = response.body();
+        if (body != null) {
+            entityBuilder.body(ArrayUtils.emptyToNull(body.bytes()));
+        }
+
+        // Done
+        return entityBuilder.build();
+    }
+
+    private @NotNull ResponseEntity<InputStream> newStreamingResponseEntity(
+            @NotNull Response response,
+            @NotNull CookieStore cookieStore
+    ) {
+
+        BasicResponseEntity.Builder<InputStream> entityBuilder = newResponseEntityBuilder(response, cookieStore);
+
+        // Set response body, which is read and closed by the caller
+        ResponseBody body = response.body();
+        if (body != null) {
+            entityBuilder.body(body.byteStream());
+        }
+
+        // Done
+        return entityBuilder.build();
+    }
+
+    private @NotNull <T> BasicResponseEntity.Builder<T> newResponseEntityBuilder(
+            @NotNull Response response,
+            @NotNull CookieStore cookieStore
+    ) {
+
         Guard.notNull(response, "response is null");
         Guard.notNull(cookieStore, "cookieStore is null");
 
         // Handle HTTP response
         HttpStatus statusCode = HttpStatus.valueOf(response.code());
-        BasicResponseEntity.Builder<byte[]> entityBuilder = new BasicResponseEntity.Builder<byte[]>()
+        BasicResponseEntity.Builder<T> entityBuilder = new BasicResponseEntity.Builder<T>()
                 .uri(response.request().url().uri())
                 .headers(mapping(response.headers()))
                 .status(statusCode)
@@ -232,13 +715,10 @@ public final class RestApiClient {
             if (contentType != null) {
                 entityBuilder.mediaType(MediaType.valueOf(contentType.toString()));
             }
-
-            // Set response body
-            entityBuilder.body(ArrayUtils.emptyToNull(body.bytes()));
         }
 
         // Done
-        return entityBuilder.build();
+        return entityBuilder;
     }
 
     @Deprecated
@@ -276,7 +756,7 @@ public final class RestApiClient {
 
 // MARK: - Private Methods
 
-    private <T> List<T> nullToEmpty(List<T> list) {
+    private static <T> List<T> nullToEmpty(List<T> list) {
         return (list != null) ? list : Collections.emptyList();
     }
 
@@ -332,11 +812,63 @@ public final class RestApiClient {
             return this;
         }
 
+        public @NotNull Builder maxIdleConnections(int maxIdleConnections) {
+            Guard.isTrue(maxIdleConnections >= 0, "maxIdleConnections < 0");
+            mOptions.mMaxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        public @NotNull Builder keepAliveDuration(long duration) {
+            Guard.isTrue(duration > 0, "duration <= 0");
+            mOptions.mKeepAliveDuration = duration;
+            return this;
+        }
+
+        public @NotNull Builder maxRequests(int maxRequests) {
+            Guard.isTrue(maxRequests >= 1, "maxRequests < 1");
+            mOptions.mMaxRequests = maxRequests;
+            return this;
+        }
+
+        public @NotNull Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            Guard.isTrue(maxRequestsPerHost >= 1, "maxRequestsPerHost < 1");
+            mOptions.mMaxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        public @NotNull Builder hedgingPolicy(@Nullable HedgingPolicy hedgingPolicy) {
+            mOptions.mHedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        public @NotNull Builder circuitBreakers(@Nullable CircuitBreakerRegistry circuitBreakers) {
+            mOptions.mCircuitBreakers = circuitBreakers;
+            return this;
+        }
+
+        /**
+         * Sets the {@link System#nanoTime()} by which the calls must complete, or 0 for no deadline.
+         */
+        public @NotNull Builder deadline(long deadline) {
+            mDeadline = deadline;
+            return this;
+        }
+
+        /**
+         * Sets the listener which receives the calls sent by the blocking methods, so that they can be cancelled.
+         */
+        public @NotNull Builder callListener(@Nullable CallListener callListener) {
+            mCallListener = callListener;
+            return this;
+        }
+
         public @NotNull RestApiClient build() {
             return new RestApiClient(this);
         }
 
         private final Options mOptions;
+        private long mDeadline = 0;
+        private CallListener mCallListener;
     }
 
     private static final class Options implements Cloneable {
@@ -359,11 +891,50 @@ public final class RestApiClient {
             other.mHostnameVerifier = mHostnameVerifier;
             other.mSSLSocketFactory = mSSLSocketFactory;
             other.mTrustManager = mTrustManager;
+            other.mMaxIdleConnections = mMaxIdleConnections;
+            other.mKeepAliveDuration = mKeepAliveDuration;
+            other.mMaxRequests = mMaxRequests;
+            other.mMaxRequestsPerHost = mMaxRequestsPerHost;
+            other.mCircuitBreakers = mCircuitBreakers;
+            other.mHedgingPolicy = mHedgingPolicy;
 
             // Done
             return other;
         }
 
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Options other = (Options) obj;
+            return mConnectionTimeout == other.mConnectionTimeout &&
+                    mReadTimeout == other.mReadTimeout &&
+                    Objects.equals(mInterceptors, other.mInterceptors) &&
+                    Objects.equals(mNetworkInterceptors, other.mNetworkInterceptors) &&
+                    Objects.equals(mCertificatePinner, other.mCertificatePinner) &&
+                    Objects.equals(mHostnameVerifier, other.mHostnameVerifier) &&
+                    Objects.equals(mSSLSocketFactory, other.mSSLSocketFactory) &&
+                    Objects.equals(mTrustManager, other.mTrustManager) &&
+                    mMaxIdleConnections == other.mMaxIdleConnections &&
+                    mKeepAliveDuration == other.mKeepAliveDuration &&
+                    mMaxRequests == other.mMaxRequests &&
+                    mMaxRequestsPerHost == other.mMaxRequestsPerHost &&
+                    Objects.equals(mCircuitBreakers, other.mCircuitBreakers) &&
+                    Objects.equals(mHedgingPolicy, other.mHedgingPolicy);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mConnectionTimeout, mReadTimeout, mInterceptors, mNetworkInterceptors,
+                    mCertificatePinner, mHostnameVerifier, mSSLSocketFactory, mTrustManager,
+                    mMaxIdleConnections, mKeepAliveDuration, mMaxRequests, mMaxRequestsPerHost, mCircuitBreakers, mHedgingPolicy);
+        }
+
         private int mConnectionTimeout = NetworkConfig.Timeout.CONNECTION;
         private int mReadTimeout = NetworkConfig.Timeout.READ;
         private List<Interceptor> mInterceptors;
@@ -372,6 +943,398 @@ public final class RestApiClient {
         private HostnameVerifier mHostnameVerifier;
         private SSLSocketFactory mSSLSocketFactory;
         private X509TrustManager mTrustManager;
+        private int mMaxIdleConnections = NetworkConfig.ConnectionPool.MAX_IDLE_CONNECTIONS;
+        private long mKeepAliveDuration = NetworkConfig.ConnectionPool.KEEP_ALIVE_DURATION;
+        private int mMaxRequests = NetworkConfig.Dispatcher.MAX_REQUESTS;
+        private int mMaxRequestsPerHost = NetworkConfig.Dispatcher.MAX_REQUESTS_PER_HOST;
+        private CircuitBreakerRegistry mCircuitBreakers = null;
+        private HedgingPolicy mHedgingPolicy;
+    }
+
+    /**
+     * Races a duplicate request against a slow one.
+     * <p>
+     * The blocking calls are sent with {@link okhttp3.Call#execute()} on the dedicated hedge workers, so that
+     * the duplicate doesn't wait behind the slow request for a slot of the dispatcher's per-host limit.
+     * The duplicate is dropped while all the hedge workers are busy.
+     */
+    private final class HedgedCall implements okhttp3.Callback, Cancellable {
+
+        private HedgedCall(@NotNull Request request, @NotNull CookieStore cookieStore, boolean blocking,
+                @NotNull HttpResultCallback callback) {
+            // Init instance variables
+            mRequest = request;
+            mCookieStore = cookieStore;
+            mBlocking = blocking;
+            mCallback = callback;
+            mHedgingPolicy = mOptions.mHedgingPolicy;
+            mClient = newClient();
+        }
+
+        private @NotNull Cancellable start() {
+            long delay = mHedgingPolicy.onRequest();
+            send(false);
+
+            // Send the duplicate request when the delay expires
+            ScheduledFuture<?> timer = HEDGE_TIMER.schedule(this::hedge, delay, TimeUnit.MILLISECONDS);
+            synchronized (this) {
+                mTimer = timer;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean cancel() {
+            List<okhttp3.Call> calls;
+            ScheduledFuture<?> timer;
+
+            synchronized (this) {
+                if (mCancelled || mDone) {
+                    return false;
+                }
+                mCancelled = true;
+                calls = new ArrayList<>(mCalls);
+                timer = mTimer;
+            }
+
+            // The failures of the cancelled calls are delivered as usual
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            Stream.of(calls).forEach(okhttp3.Call::cancel);
+            return true;
+        }
+
+        @Override
+        public void onResponse(@NotNull okhttp3.Call call, @NotNull Response response) {
+            synchronized (this) {
+                if (mDone) {
+                    response.close();
+                    return;
+                }
+            }
+
+            HttpResult result = newHttpResult(response, mCookieStore);
+            if (result.isSuccess()) {
+                long latency = response.receivedResponseAtMillis() - response.sentRequestAtMillis();
+                mHedgingPolicy.recordLatency(Math.max(latency, 0));
+            }
+            complete(result);
+        }
+
+        @Override
+        public void onFailure(@NotNull okhttp3.Call call, @NotNull IOException ex) {
+            HttpResult result = newHttpResult(ex, mCookieStore);
+
+            // Wait for the other requests unless this one was the last
+            if (!result.isSuccess()) {
+                synchronized (this) {
+                    if (--mPendingCalls > 0) {
+                        mFailure = result;
+                        return;
+                    }
+                }
+            }
+            complete(result);
+        }
+
+        private void send(boolean duplicate) {
+            okhttp3.Call call = newCall(mClient, mRequest);
+
+            synchronized (this) {
+                if (mDone || mCancelled) {
+                    return;
+                }
+                mCalls.add(call);
+                mPendingCalls++;
+            }
+
+            if (!mBlocking) {
+                call.enqueue(this);
+                return;
+            }
+
+            try {
+                HEDGE_EXECUTOR.execute(() -> execute(call));
+            }
+            catch (RejectedExecutionException ex) {
+                Logger.w(TAG, ex);
+
+                // Send the original request through the dispatcher, and drop the duplicate one
+                if (!duplicate) {
+                    call.enqueue(this);
+                }
+                else {
+                    drop(call);
+                }
+            }
+        }
+
+        private void drop(@NotNull okhttp3.Call call) {
+            HttpResult failure;
+
+            synchronized (this) {
+                mCalls.remove(call);
+
+                // Deliver the failure of the original request if it failed in the meantime
+                if (--mPendingCalls > 0 || mFailure == null) {
+                    return;
+                }
+                failure = mFailure;
+            }
+            complete(failure);
+        }
+
+        private void execute(@NotNull okhttp3.Call call) {
+            Response response;
+
+            try {
+                response = call.execute();
+            }
+            catch (IOException ex) {
+                onFailure(call, ex);
+                return;
+            }
+            catch (RuntimeException ex) {
+                Logger.e(TAG, ex);
+
+                // Don't leave the caller waiting for the result
+                complete(HttpResult.failure(ex));
+                return;
+            }
+            onResponse(call, response);
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (mDone || mCancelled || mPendingCalls == 0) {
+                    return;
+                }
+            }
+
+            // Don't amplify an overload with the duplicate requests
+            if (mHedgingPolicy.tryAcquireHedge()) {
+                send(true);
+            }
+        }
+
+        private void complete(@NotNull HttpResult result) {
+            List<okhttp3.Call> calls;
+            ScheduledFuture<?> timer;
+
+            synchronized (this) {
+                if (mDone) {
+                    return;
+                }
+                mDone = true;
+                calls = new ArrayList<>(mCalls);
+                timer = mTimer;
+            }
+
+            // Cancel the requests which lost the race
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            Stream.of(calls).forEach(okhttp3.Call::cancel);
+
+            // Done
+            mCallback.onResult(result);
+        }
+
+        private final Request mRequest;
+        private final CookieStore mCookieStore;
+        private final boolean mBlocking;
+        private final HttpResultCallback mCallback;
+        private final HedgingPolicy mHedgingPolicy;
+        private final OkHttpClient mClient;
+        private final List<okhttp3.Call> mCalls = new ArrayList<>();
+        private ScheduledFuture<?> mTimer;
+        private int mPendingCalls;
+        private HttpResult mFailure;
+        private boolean mCancelled;
+        private boolean mDone;
+    }
+
+    private static final class ConnectionPoolListener extends EventListener {
+
+        private ConnectionPoolListener(@NotNull ConnectionPool connectionPool) {
+            // Init instance variables
+            mConnectionPool = connectionPool;
+        }
+
+        @Override
+        public void connectEnd(@NotNull okhttp3.Call call, @NotNull InetSocketAddress inetSocketAddress,
+                @NotNull Proxy proxy, @Nullable Protocol protocol) {
+            mCreatedConnections.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(@NotNull okhttp3.Call call, @NotNull Connection connection) {
+            mAcquiredConnections.incrementAndGet();
+        }
+
+        private @NotNull ConnectionPool connectionPool() {
+            return mConnectionPool;
+        }
+
+        private @NotNull ConnectionPoolStats stats() {
+            return new ConnectionPoolStats(mConnectionPool.idleConnectionCount(), mConnectionPool.connectionCount(),
+                    mAcquiredConnections.get(), mCreatedConnections.get());
+        }
+
+        private final ConnectionPool mConnectionPool;
+        private final AtomicLong mAcquiredConnections = new AtomicLong();
+        private final AtomicLong mCreatedConnections = new AtomicLong();
+    }
+
+    private static final class CircuitBreakerInterceptor implements Interceptor {
+
+        private CircuitBreakerInterceptor(@NotNull CircuitBreakerRegistry circuitBreakers) {
+            // Init instance variables
+            mCircuitBreakers = circuitBreakers;
+        }
+
+        @Override
+        public @NotNull Response intercept(@NotNull Chain chain) throws IOException {
+            HttpUrl url = chain.request().url();
+            String host = url.scheme() + "://" + url.host() + ":" + url.port();
+
+            CircuitBreaker circuitBreaker = mCircuitBreakers.circuitBreaker(host);
+            long permit = circuitBreaker.acquire();
+
+            // Don't dial the host while the circuit breaker is open
+            if (permit == CircuitBreaker.NOT_PERMITTED) {
+                throw new CircuitBreakerOpenException(host);
+            }
+
+            try {
+                Response response = chain.proceed(chain.request());
+                // Only the statuses of an unreachable or overloaded host count as failures, not the errors of the application
+                circuitBreaker.onComplete(permit, !HOST_FAILURE_STATUS_CODES.contains(response.code()));
+                return response;
+            }
+            catch (IOException ex) {
+                // Cancelled calls say nothing about the host
+                if (chain.call().isCanceled()) {
+                    circuitBreaker.onIgnored(permit);
+                }
+                else {
+                    circuitBreaker.onComplete(permit, false);
+                }
+                throw ex;
+            }
+            catch (RuntimeException ex) {
+                circuitBreaker.onIgnored(permit);
+                throw ex;
+            }
+        }
+
+        private final CircuitBreakerRegistry mCircuitBreakers;
+    }
+
+    private static final class CookieStoreInterceptor implements Interceptor {
+
+        @Override
+        public @NotNull Response intercept(@NotNull Chain chain) throws IOException {
+            Request request = chain.request();
+
+            // Requests without a cookie store are passed as is
+            CookieStore cookieStore = request.tag(CookieStore.class);
+            if (cookieStore == null) {
+                return chain.proceed(request);
+            }
+
+            CookieManager cookieManager = new CookieManager(cookieStore, CookiePolicy.ACCEPT_ALL);
+            CookieJar cookieJar = new CompatJavaNetCookieJar(cookieManager);
+
+            // Add cookies to the outgoing HTTP request
+            HttpUrl url = request.url();
+            List<Cookie> cookies = cookieJar.loadForRequest(url);
+
+            if (!cookies.isEmpty()) {
+                request = request.newBuilder()
+                        .header(HttpHeaders.COOKIE, cookieHeader(cookies))
+                        .build();
+            }
+
+            // Accept cookies from the incoming HTTP response
+            Response response = chain.proceed(request);
+            List<Cookie> responseCookies = Cookie.parseAll(url, response.headers());
+
+            if (!responseCookies.isEmpty()) {
+                cookieJar.saveFromResponse(url, responseCookies);
+            }
+
+            // Done
+            return response;
+        }
+
+        private static @NotNull String cookieHeader(@NotNull List<Cookie> cookies) {
+            StringBuilder cookieHeader = new StringBuilder();
+
+            for (int idx = 0, size = cookies.size(); idx < size; idx++) {
+                if (idx > 0) {
+                    cookieHeader.append("; ");
+                }
+
+                Cookie cookie = cookies.get(idx);
+                cookieHeader.append(cookie.name()).append('=').append(cookie.value());
+            }
+            return cookieHeader.toString();
+        }
+    }
+
+    /**
+     * Receives the HTTP calls sent by the blocking methods, so that they can be cancelled from another thread.
+     */
+    public interface CallListener {
+
+        /**
+         * Called before the call is sent. Cancelling the call closes its connection,
+         * and the blocking method returns a failure without reading the rest of the response body.
+         */
+        void onCallStart(@NotNull Cancellable call);
+    }
+
+    /**
+     * Writes the streaming body to the connection, without buffering it.
+     */
+    private static class StreamingRequestBody extends RequestBody {
+
+        private StreamingRequestBody(@Nullable okhttp3.MediaType mediaType, @NotNull StreamingHttpBody body) {
+            // Init instance variables
+            mMediaType = mediaType;
+            mBody = body;
+        }
+
+        @Override
+        public @Nullable okhttp3.MediaType contentType() {
+            return mMediaType;
+        }
+
+        @Override
+        public long contentLength() {
+            return mBody.contentLength();
+        }
+
+        @Override
+        public void writeTo(@NotNull BufferedSink sink) throws IOException {
+            // The body must not close the sink of the connection
+            mBody.writeTo(sink);
+        }
+
+        private final okhttp3.MediaType mMediaType;
+        private final StreamingHttpBody mBody;
+    }
+
+    /**
+     * A streaming body which OkHttp must not send again on its own retries.
+     */
+    private static final class OneShotRequestBody extends StreamingRequestBody implements UnrepeatableRequestBody {
+
+        private OneShotRequestBody(@Nullable okhttp3.MediaType mediaType, @NotNull StreamingHttpBody body) {
+            super(mediaType, body);
+        }
     }
 
     public static class HttpResponseException extends IOException {
@@ -394,7 +1357,49 @@ public final class RestApiClient {
     private static final OkHttpClient SHARED_HTTP_CLIENT = new OkHttpClient.Builder().build();
     private static final HttpBody EMPTY_HTTP_BODY = new ByteArrayBody();
 
+    private static final Interceptor COOKIE_STORE_INTERCEPTOR = new CookieStoreInterceptor();
+    private static final int MAX_CACHED_HTTP_CLIENTS = 16;
+
+    // The methods of the requests which may be hedged
+    private static final List<String> HEDGED_METHODS = Arrays.asList(MethodName.GET, MethodName.HEAD, MethodName.OPTIONS);
+
+    // Sends the duplicates of the slow requests
+    private static final ScheduledExecutorService HEDGE_TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, RestApiClient.class.getSimpleName() + " HedgeTimer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Sends the blocking hedged calls, outside the dispatchers' limits, and rejects them once all its threads are busy
+    private static final ExecutorService HEDGE_EXECUTOR = new ThreadPoolExecutor(0, NetworkConfig.Dispatcher.MAX_REQUESTS,
+            60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, RestApiClient.class.getSimpleName() + " HedgeWorker");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // The response codes of an unreachable or overloaded host, which count as failures of the circuit breakers
+    private static final List<Integer> HOST_FAILURE_STATUS_CODES = Arrays.asList(
+            HttpStatus.BAD_GATEWAY.value(), HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.GATEWAY_TIMEOUT.value());
+
+    // Connection pools and dispatchers shared by HTTP clients with the same limits
+    private static final Map<String, ConnectionPoolListener> sConnectionPools = new HashMap<>();
+    private static final Map<String, Dispatcher> sDispatchers = new HashMap<>();
+
+    // HTTP clients built for the recently used options
+    private static final Map<Options, OkHttpClient> sHttpClients =
+            new LinkedHashMap<Options, OkHttpClient>(MAX_CACHED_HTTP_CLIENTS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Entry<Options, OkHttpClient> eldest) {
+                    return size() > MAX_CACHED_HTTP_CLIENTS;
+                }
+            };
+
 // MARK: - Variables
 
     private Options mOptions;
+
+    private final long mDeadline;
+
+    private final CallListener mCallListener;
 }
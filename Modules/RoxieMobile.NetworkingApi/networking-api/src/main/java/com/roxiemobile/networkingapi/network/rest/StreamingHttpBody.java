@@ -0,0 +1,57 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import okio.BufferedSink;
+
+/**
+ * A request body which is written to the connection while the request is sent, so that it never has to be
+ * held in memory as a whole.
+ */
+public interface StreamingHttpBody extends HttpBody
+{
+    /**
+     * The number of bytes written by {@link #writeTo(OutputStream)}, or -1 if it is unknown,
+     * in which case the body is sent with the chunked transfer encoding.
+     */
+    long contentLength();
+
+    /**
+     * Writes the body to the stream. Must not close the stream.
+     */
+    void writeTo(@NotNull OutputStream stream) throws IOException;
+
+    /**
+     * Writes the body to the sink of the connection. Must not close the sink. Override it to fill
+     * the buffers of the sink directly, instead of copying the body through a buffer of its own.
+     */
+    default void writeTo(@NotNull BufferedSink sink) throws IOException {
+        writeTo(sink.outputStream());
+    }
+
+    /**
+     * Whether {@link #writeTo(OutputStream)} may be called more than once, so that the request
+     * can be retried. A body which can be written once only is never resent.
+     */
+    boolean isReplayable();
+
+    /**
+     * Writes the whole body to memory. Defeats the purpose of the streaming body, and consumes it
+     * if it is not replayable.
+     */
+    @Override
+    default byte[] body() {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try {
+            writeTo(stream);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return stream.toByteArray();
+    }
+}
@@ -0,0 +1,37 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+
+/**
+ * The result of an HTTP call whose response body is not buffered in memory. The body of a successful result
+ * must be closed once it is read, which releases the connection.
+ */
+public class StreamingHttpResult extends Result<ResponseEntity<InputStream>, Throwable, InputStream>
+{
+// MARK: - Construction
+
+    private StreamingHttpResult(ResponseEntity<InputStream> success) {
+        super(success);
+    }
+
+    private StreamingHttpResult(Throwable failure) {
+        super(failure);
+    }
+
+// MARK: - Methods
+
+    public static @NotNull StreamingHttpResult success(@NotNull ResponseEntity<InputStream> response) {
+        Guard.notNull(response, "response is null");
+        return new StreamingHttpResult(response);
+    }
+
+    public static @NotNull StreamingHttpResult failure(@NotNull Throwable error) {
+        Guard.notNull(error, "error is null");
+        return new StreamingHttpResult(error);
+    }
+}
@@ -1,12 +1,119 @@
 package com.roxiemobile.networkingapi.network.rest;
 
+import com.roxiemobile.networkingapi.network.HttpKeys.MethodName;
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.RestApiError;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+
 public interface Task<Ti, To> extends Call<Ti>, Cloneable
 {
+    /**
+     * Whether the task may share a single HTTP call with identical tasks in flight.
+     * It takes effect for the safe HTTP methods only, see {@link #httpMethod()}.
+     */
+    default boolean coalescing() {
+        return false;
+    }
+
+    /**
+     * The HTTP method of the request, e.g. {@link MethodName#GET}, or {@code null} if it is not known.
+     */
+    default @Nullable String httpMethod() {
+        return null;
+    }
+
+    /**
+     * The priority class of the task in {@link TaskQueue}.
+     */
+    default TaskPriority priority() {
+        return TaskPriority.NORMAL;
+    }
+
+    /**
+     * The time in milliseconds within which the task must complete, including the time spent in the queue,
+     * or 0 if the task has no deadline.
+     */
+    default long deadline() {
+        return 0;
+    }
+
+    /**
+     * The maximum time in milliseconds the task may wait in {@link TaskQueue} before it is shed,
+     * or 0 if the task may wait for any time.
+     */
+    default long maxQueueAge() {
+        return 0;
+    }
+
     /**
      * TODO
      */
     void execute(Callback<Ti, To> callback);
 
+    /**
+     * Asynchronously send the request and notify the callback when its response arrives.
+     */
+    default void executeAsync(Callback<Ti, To> callback) {
+        executeAsync(callback, null);
+    }
+
+    /**
+     * Asynchronously send the request and notify the callback when its response arrives.
+     * The response is converted on the given executor, or on the thread which received it if the executor is {@code null}.
+     * <p>
+     * The default implementation sends the request on the calling thread with {@link #execute(Callback)}.
+     */
+    default void executeAsync(Callback<Ti, To> callback, Executor conversionExecutor) {
+        execute(callback);
+    }
+
+    /**
+     * Asynchronously send the request and notify the callback when its response arrives.
+     * The response is converted on the given executor, or on the thread which received it if the executor is {@code null}.
+     * The retried requests are sent on the retry executor.
+     */
+    default void executeAsync(Callback<Ti, To> callback, Executor conversionExecutor, Executor retryExecutor) {
+        executeAsync(callback, conversionExecutor);
+    }
+
+    /**
+     * Asynchronously send the request and return a future of its response.
+     * Cancelling the future cancels the task.
+     */
+    default CallFuture<ResponseEntity<To>> executeAsync() {
+        final CallFuture<ResponseEntity<To>> future = new CallFuture<>();
+
+        // Complete the future with the call result
+        Cancellable cancellable = enqueue(new Callback<Ti, To>() {
+
+            @Override
+            public boolean onShouldExecute(Call<Ti> call) {
+                return !future.isDone();
+            }
+
+            @Override
+            public void onSuccess(Call<Ti> call, ResponseEntity<To> entity) {
+                future.complete(entity);
+            }
+
+            @Override
+            public void onFailure(Call<Ti> call, RestApiError error) {
+                future.completeExceptionally(error);
+            }
+
+            @Override
+            public void onCancel(Call<Ti> call) {
+                future.cancel(false);
+            }
+        }, false);
+
+        // Done
+        return future.doOnCancel(cancellable);
+    }
+
     /**
      * TODO
      */
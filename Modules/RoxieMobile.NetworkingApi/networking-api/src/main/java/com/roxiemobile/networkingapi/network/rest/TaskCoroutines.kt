@@ -0,0 +1,108 @@
+@file:JvmName("TaskCoroutines")
+
+package com.roxiemobile.networkingapi.network.rest
+
+import com.roxiemobile.networkingapi.network.rest.converter.AbstractStreamingItemConverter
+import com.roxiemobile.networkingapi.network.rest.request.AbstractTask
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity
+import com.roxiemobile.networkingapi.network.rest.response.error.ApplicationLayerError
+import com.roxiemobile.networkingapi.network.rest.response.error.RestApiErrorException
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConversionException
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.UnexpectedMediaTypeException
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.util.concurrent.CancellationException
+import kotlin.coroutines.EmptyCoroutineContext
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Sends the request and suspends until its response arrives. No thread is held while the response is pending
+ * if the task sends its request with the non-blocking client methods, as [AbstractTask] does when it has
+ * an HTTP method; otherwise a worker thread of [TaskQueue] is held by the blocking call.
+ * Cancelling the coroutine cancels the task along with its HTTP call.
+ *
+ * @throws RestApiErrorException if the task fails.
+ */
+suspend fun <Ti, To> Task<Ti, To>.await(): ResponseEntity<To> =
+    executeAsync().await()
+
+/**
+ * Suspends until the future completes, without blocking a thread.
+ * Cancelling the coroutine cancels the future.
+ *
+ * @throws RestApiErrorException if the future completes exceptionally.
+ */
+suspend fun <V> CallFuture<V>.await(): V =
+    suspendCancellableCoroutine { continuation ->
+        continuation.invokeOnCancellation { cancel(true) }
+
+        whenComplete { value, error ->
+            when (error) {
+                null -> continuation.resume(value)
+                is CancellationException -> continuation.cancel(error)
+                else -> continuation.resumeWithException(error)
+            }
+        }
+    }
+
+/**
+ * Returns a cold flow which sends the request when it is collected, and emits the items of the response body
+ * as the converter reads them, while the body arrives. The body is read on [Dispatchers.IO].
+ * Cancelling the collector cancels the task, which tears down its HTTP call, and closes the body.
+ *
+ * @throws RestApiErrorException if the task fails or the body can't be converted.
+ */
+fun <T : Any> AbstractTask<*, *>.asFlow(converter: AbstractStreamingItemConverter<T>): Flow<T> = flow {
+    val entity = interruptible({ executeStreaming() }, { it.body()?.close() })
+    var completed = false
+
+    try {
+        val reader = convert { converter.open(entity) }
+
+        while (true) {
+            val item = interruptible({ convert { reader.read() } }) ?: break
+            emit(item)
+        }
+        completed = true
+    }
+    finally {
+        // Tear down the call instead of reading the rest of the body
+        if (!completed) {
+            cancel()
+        }
+        entity.body()?.close()
+    }
+}
+
+/**
+ * Runs the blocking block on [Dispatchers.IO] and suspends until it returns. Cancelling the coroutine cancels
+ * the task, which fails the block at once, and the value returned by the block is then passed to [release].
+ */
+private suspend fun <T> AbstractTask<*, *>.interruptible(block: () -> T, release: (T) -> Unit = {}): T =
+    suspendCancellableCoroutine { continuation ->
+        continuation.invokeOnCancellation { cancel() }
+
+        Dispatchers.IO.dispatch(EmptyCoroutineContext, Runnable {
+            val result = runCatching(block)
+            continuation.resumeWith(result)
+
+            // The value is dropped by the cancelled continuation
+            if (continuation.isCancelled) {
+                result.onSuccess(release)
+            }
+        })
+    }
+
+private inline fun <R> convert(block: () -> R): R =
+    try {
+        block()
+    }
+    catch (ex: ConversionException) {
+        throw RestApiErrorException(ApplicationLayerError(ex))
+    }
+    catch (ex: UnexpectedMediaTypeException) {
+        throw RestApiErrorException(ApplicationLayerError(ex))
+    }
@@ -0,0 +1,22 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+/**
+ * The priority class of a task in {@link TaskQueue}.
+ */
+public enum TaskPriority
+{
+    /**
+     * User-visible requests which must be executed before any other.
+     */
+    IMMEDIATE,
+
+    /**
+     * Regular requests.
+     */
+    NORMAL,
+
+    /**
+     * Background requests which prefetch data that may be needed later.
+     */
+    PREFETCH
+}
@@ -1,23 +1,47 @@
 package com.roxiemobile.networkingapi.network.rest;
 
+import com.annimon.stream.Objects;
 import com.annimon.stream.Stream;
 import com.roxiemobile.androidcommons.concurrent.MainThreadExecutor;
 import com.roxiemobile.androidcommons.concurrent.ParallelWorkerThreadExecutor;
 import com.roxiemobile.androidcommons.concurrent.ThreadUtils;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
 import com.roxiemobile.androidcommons.logging.Logger;
-import com.roxiemobile.networkingapi.network.http.util.LinkedMultiValueMap;
+import com.roxiemobile.networkingapi.network.HttpKeys.MethodName;
+import com.roxiemobile.networkingapi.network.NetworkConfig;
+import com.roxiemobile.networkingapi.network.http.CookieStore;
+import com.roxiemobile.networkingapi.network.http.HttpHeaders;
+import com.roxiemobile.networkingapi.network.rest.request.RequestEntity;
 import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
 import com.roxiemobile.networkingapi.network.rest.response.RestApiError;
+import com.roxiemobile.networkingapi.network.rest.response.error.ApplicationLayerError;
+import com.roxiemobile.networkingapi.network.rest.response.error.TransportLayerError;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConnectionException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.DeadlineExceededException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ResponseException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.StaleTaskException;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
@@ -30,8 +54,54 @@ public class TaskQueue
 {
 // MARK: - Construction
 
-    private TaskQueue() {
-        // Do nothing
+    private TaskQueue(@NotNull Builder builder) {
+        // Init instance variables
+        mIoExecutor = builder.mIoExecutor;
+        mConversionExecutor = builder.mConversionExecutor;
+        mCallbackExecutor = builder.mCallbackExecutor;
+        mScheduler = new TaskScheduler(mIoExecutor, builder.mMaxRunningTasks,
+                builder.mMaxRunningTasksPerHost, PRIORITY_AGING_INTERVAL,
+                builder.mMaxQueuedTasks, builder.mOverflowPolicy, builder.mOverflowTimeout, builder.mFairSharePolicy);
+        mFairSharePolicy = builder.mFairSharePolicy;
+    }
+
+    /**
+     * Returns the task queue which runs the tasks on the shared worker threads.
+     */
+    public static @NotNull TaskQueue shared() {
+        return SingletonHolder.SHARED_INSTANCE;
+    }
+
+// MARK: - Properties
+
+    /**
+     * The executor which sends the requests.
+     */
+    public @NotNull Executor ioExecutor() {
+        return mIoExecutor;
+    }
+
+    /**
+     * The executor which converts the responses, or {@code null} if they are converted on the thread
+     * which received them.
+     */
+    public @Nullable Executor conversionExecutor() {
+        return mConversionExecutor;
+    }
+
+    /**
+     * The executor which delivers the results to the callbacks not bound to the UI thread.
+     */
+    public @NotNull Executor callbackExecutor() {
+        return mCallbackExecutor;
+    }
+
+    /**
+     * The policy which shares the worker threads between the groups of tasks, or {@code null}
+     * if the tasks of the same priority are started in order of arrival.
+     */
+    public @Nullable FairSharePolicy fairSharePolicy() {
+        return mFairSharePolicy;
     }
 
 // MARK: - Methods
@@ -39,73 +109,345 @@ public class TaskQueue
     /**
      * TODO
      */
-    public static @NotNull <Ti, To> Cancellable enqueue(@NotNull Task<Ti, To> task) {
-        return enqueue(task, null);
+    public @NotNull <Ti, To> Cancellable submit(@NotNull Task<Ti, To> task) {
+        return submit(task, null);
     }
 
     /**
      * TODO
      */
-    public static @NotNull <Ti, To> Cancellable enqueue(@NotNull Task<Ti, To> task, Callback<Ti, To> callback) {
-        return enqueue(task, callback, ThreadUtils.runningOnUiThread());
+    public @NotNull <Ti, To> Cancellable submit(@NotNull Task<Ti, To> task, Callback<Ti, To> callback) {
+        return submit(task, callback, ThreadUtils.runningOnUiThread());
     }
 
     /**
      * TODO
      */
-    public static @NotNull <Ti, To> Cancellable enqueue(@NotNull Task<Ti, To> task, Callback<Ti, To> callback, boolean callbackOnUiThread) {
+    public @NotNull <Ti, To> Cancellable submit(@NotNull Task<Ti, To> task, Callback<Ti, To> callback, boolean callbackOnUiThread) {
 
-        // Create new cancellable task
-        final InnerFutureTask futureTask = new InnerFutureTask<>(new InnerRunnableTask<>(task, callback, callbackOnUiThread));
-        synchronized (sInnerLock) {
-            sTasks.add(task.tag(), futureTask);
+        // Attach the task to an identical one in flight
+        if (task.coalescing() && COALESCED_METHODS.contains(task.httpMethod())) {
+            return enqueueCoalescing(task, callback, callbackOnUiThread);
         }
 
+        // Create new cancellable task
+        final InnerFutureTask<Ti, To> futureTask = new InnerFutureTask<>(task, newCallback(callback, callbackOnUiThread));
+        add(task.tag(), futureTask);
+
+        // Remove the task once its result is delivered
+        futureTask.mRunnableTask.mCallback.doOnFinish(() -> remove(task.tag(), futureTask));
+
         // Execute the FutureTask on the background thread
-        ParallelWorkerThreadExecutor.shared().execute(futureTask);
+        schedule(futureTask, task);
 
         // Done
         return futureTask;
     }
 
+    /**
+     * Returns the queue wait statistics of the tasks with the given priority.
+     */
+    public @NotNull QueueWaitStats queueWaitStats(@NotNull TaskPriority priority) {
+        return mScheduler.stats(priority);
+    }
+
+    /**
+     * Returns the number of queued and active tasks of every host which has any.
+     */
+    public @NotNull List<HostQueueStats> hostQueueStats() {
+        return mScheduler.hostStats();
+    }
+
+    /**
+     * Returns the adaptive limit of the tasks running concurrently for the host of the given URI,
+     * which is fed by the round-trip times of the tasks of this queue only.
+     */
+    public @NotNull ConcurrencyLimit concurrencyLimit(@NotNull URI uri) {
+        String host = hostOf(uri);
+        Guard.notNull(host, "uri has no host");
+        return mScheduler.concurrencyLimit(host);
+    }
+
+    /**
+     * Waits until the queue has room for a task, so that a producer can hold back instead of
+     * having its tasks handled by the overflow policy.
+     *
+     * @param timeout The maximum time to wait, in milliseconds.
+     * @return {@code false} if the timeout elapsed before the queue had room.
+     */
+    public boolean awaitCapacity(long timeout) throws InterruptedException {
+        return mScheduler.awaitCapacity(timeout);
+    }
+
+    /**
+     * Returns the number of tasks waiting in the queue for a worker thread.
+     */
+    public int queuedTaskCount() {
+        return mScheduler.queuedTaskCount();
+    }
+
+    /**
+     * Returns the number of tasks failed because the queue was full.
+     */
+    public long rejectedTaskCount() {
+        return mScheduler.rejectedTaskCount();
+    }
+
+    /**
+     * Returns the number of queued tasks failed to make room for the tasks of a higher priority.
+     */
+    public long shedTaskCount() {
+        return mScheduler.shedTaskCount();
+    }
+
+    /**
+     * Returns the number of tasks with the given tag which were shed because they waited in the queue
+     * longer than their maximum queue age. The counts of the least recently used tags are forgotten.
+     */
+    public long staleTaskCount(String tag) {
+        synchronized (mStaleTaskCounts) {
+            Long count = mStaleTaskCounts.get(tagKey(tag));
+            return (count != null) ? count : 0;
+        }
+    }
+
+    /**
+     * Attaches the rate limiter to the tasks enqueued from now on.
+     */
+    public void addRateLimiter(@NotNull RateLimiter rateLimiter) {
+        Guard.notNull(rateLimiter, "rateLimiter is null");
+        mRateLimiters.add(rateLimiter);
+    }
+
+    /**
+     * Detaches the rate limiter attached earlier.
+     */
+    public void removeRateLimiter(@NotNull RateLimiter rateLimiter) {
+        Guard.notNull(rateLimiter, "rateLimiter is null");
+        mRateLimiters.remove(rateLimiter);
+    }
+
+    /**
+     * Returns the attached rate limiters.
+     */
+    public @NotNull List<RateLimiter> rateLimiters() {
+        return new ArrayList<>(mRateLimiters);
+    }
+
     /**
      * TODO
      */
+    public void cancelAll(String tag) {
+        InnerTaskSet cancellableTasks = mTasks.remove(tagKey(tag));
+
+        if (cancellableTasks != null) {
+            Stream.of(cancellableTasks.close()).forEach(Cancellable::cancel);
+        }
+    }
+
+    /**
+     * @deprecated Use {@link #submit(Task)} of the {@link #shared()} queue instead.
+     */
+    @Deprecated
+    public static @NotNull <Ti, To> Cancellable enqueue(@NotNull Task<Ti, To> task) {
+        return shared().submit(task);
+    }
+
+    /**
+     * @deprecated Use {@link #submit(Task, Callback)} of the {@link #shared()} queue instead.
+     */
+    @Deprecated
+    public static @NotNull <Ti, To> Cancellable enqueue(@NotNull Task<Ti, To> task, Callback<Ti, To> callback) {
+        return shared().submit(task, callback);
+    }
+
+    /**
+     * @deprecated Use {@link #submit(Task, Callback, boolean)} of the {@link #shared()} queue instead.
+     */
+    @Deprecated
+    public static @NotNull <Ti, To> Cancellable enqueue(@NotNull Task<Ti, To> task, Callback<Ti, To> callback, boolean callbackOnUiThread) {
+        return shared().submit(task, callback, callbackOnUiThread);
+    }
+
+    /**
+     * @deprecated Use {@link #cancelAll(String)} of the {@link #shared()} queue instead.
+     */
+    @Deprecated
     public static void cancel(String tag) {
-        List<Cancellable> cancellableTasks;
+        shared().cancelAll(tag);
+    }
 
-        synchronized (sInnerLock) {
-            cancellableTasks = sTasks.remove(tag);
+// MARK: - Private Methods
+
+    private void schedule(@NotNull InnerFutureTask<?, ?> futureTask, @NotNull Task<?, ?> task) {
+        // The queue age includes the time the task is throttled by the rate limiters
+        long now = System.nanoTime();
+        long maxQueueAge = task.maxQueueAge();
+        long staleTime = (maxQueueAge > 0) ? now + TimeUnit.MILLISECONDS.toNanos(maxQueueAge) : 0;
+        long deadline = (task.deadline() > 0) ? now + TimeUnit.MILLISECONDS.toNanos(task.deadline()) : 0;
+
+        String host = hostOf(task);
+        String group = (mFairSharePolicy != null) ? mFairSharePolicy.groupOf(task.tag()) : null;
+
+        // The task takes the tokens of its rate limiters once it's started
+        mScheduler.execute(futureTask, task.priority(), host, group, deadline, staleTime, futureTask.mRunnableTask.mRateLimiters);
+    }
+
+    private @NotNull List<RateLimiter> rateLimitersOf(@NotNull Task<?, ?> task) {
+        List<RateLimiter> rateLimiters = Collections.emptyList();
+
+        for (RateLimiter rateLimiter : mRateLimiters) {
+            if (rateLimiter.matches(task)) {
+                if (rateLimiters.isEmpty()) {
+                    rateLimiters = new ArrayList<>();
+                }
+                rateLimiters.add(rateLimiter);
+            }
         }
+        return rateLimiters;
+    }
 
-        if (cancellableTasks != null) {
-            Stream.of(cancellableTasks).forEach(Cancellable::cancel);
+    private static @Nullable String hostOf(@NotNull Task<?, ?> task) {
+        RequestEntity<?> entity = task.requestEntity();
+        URI uri = (entity != null) ? entity.uri() : null;
+        return (uri != null) ? hostOf(uri) : null;
+    }
+
+    private static @Nullable String hostOf(@NotNull URI uri) {
+        // The per-host limit is applied to the scheme, host and port of the URI
+        if (uri.getHost() == null) {
+            return null;
         }
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
     }
 
-// MARK: - Inner Types
+    /**
+     * Whether the error indicates that the host is overloaded, so its concurrency limit must be lowered.
+     */
+    private static boolean isOverload(@NotNull RestApiError error) {
+        Throwable cause = error.getCause();
 
-    private static final class InnerFutureTask<Ti, To> extends FutureTask<Void> implements Cancellable
-    {
-        public InnerFutureTask(@NotNull InnerRunnableTask<Ti, To> runnableTask) {
-            super(runnableTask, null);
+        if (cause instanceof ConnectionException || cause instanceof DeadlineExceededException) {
+            return true;
+        }
+        else if (cause instanceof ResponseException) {
+            int statusCode = ((ResponseException) cause).getResponseEntity().status().value();
+            return OVERLOAD_STATUS_CODES.contains(statusCode);
+        }
+        return false;
+    }
 
-            // Init instance variables
-            mRunnableTask = runnableTask;
+    private @NotNull <Ti, To> Cancellable enqueueCoalescing(@NotNull Task<Ti, To> task, Callback<Ti, To> callback, boolean callbackOnUiThread) {
+        final InnerFlightKey key = new InnerFlightKey(task);
+        final InnerFlightMember<Ti, To> member = new InnerFlightMember<>(task, newCallback(callback, callbackOnUiThread));
+        InnerFlight<Ti, To> flight;
+        boolean newFlight = false;
+
+        synchronized (mInnerLock) {
+            flight = flightOf(key);
+
+            // Start a new flight if there is no identical task in flight
+            if (flight == null || !flight.attach(member)) {
+                flight = new InnerFlight<>(key);
+                flight.attach(member);
+
+                mFlights.put(key, flight);
+                newFlight = true;
+            }
         }
+        add(task.tag(), member);
 
-        @Override
-        protected void done() {
-            super.done();
+        // Remove the member once its result is delivered
+        final InnerFlight<Ti, To> memberFlight = flight;
+        member.mCallback.doOnFinish(() -> {
+            remove(task.tag(), member);
+            memberFlight.detach(member);
+        });
+
+        // Execute the shared task on the background thread
+        if (newFlight) {
+            flight.start(task);
+        }
+
+        // Done
+        return member;
+    }
+
+    /**
+     * Returns the flight of the key. The key includes the task class, so the flight has the types of the task.
+     */
+    @SuppressWarnings("unchecked")
+    private @Nullable <Ti, To> InnerFlight<Ti, To> flightOf(@NotNull InnerFlightKey key) {
+        return (InnerFlight<Ti, To>) mFlights.get(key);
+    }
 
-            // Remove the completed task
-            synchronized (sInnerLock) {
-                List<Cancellable> tasks = sTasks.get(mRunnableTask.mTask.tag());
+    private @NotNull <Ti, To> InnerCallback<Ti, To> newCallback(Callback<Ti, To> callback, boolean callbackOnUiThread) {
+        Executor executor = callbackOnUiThread ? MainThreadExecutor.shared() : mCallbackExecutor;
+        return new InnerCallback<>(callback, executor);
+    }
+
+    private void add(String tag, @NotNull Cancellable task) {
+        Object key = tagKey(tag);
+
+        while (true) {
+            InnerTaskSet tasks = mTasks.get(key);
 
-                if (tasks != null) {
-                    tasks.remove(this);
+            if (tasks == null) {
+                InnerTaskSet newTasks = new InnerTaskSet();
+                tasks = mTasks.putIfAbsent(key, newTasks);
+
+                if (tasks == null) {
+                    tasks = newTasks;
                 }
             }
+
+            if (tasks.add(task)) {
+                return;
+            }
+
+            // The set was closed in the meantime, so replace it with a new one
+            mTasks.remove(key, tasks);
+        }
+    }
+
+    private void remove(String tag, @NotNull Cancellable task) {
+        Object key = tagKey(tag);
+        InnerTaskSet tasks = mTasks.get(key);
+
+        // Remove the completed task, and the tag once it has no tasks
+        if (tasks != null && tasks.remove(task)) {
+            mTasks.remove(key, tasks);
+        }
+    }
+
+    private void countStaleTask(String tag) {
+        Object key = tagKey(tag);
+
+        synchronized (mStaleTaskCounts) {
+            Long count = mStaleTaskCounts.get(key);
+            mStaleTaskCounts.put(key, (count != null) ? count + 1 : 1);
+        }
+    }
+
+    private static @NotNull Object tagKey(String tag) {
+        // ConcurrentHashMap doesn't accept null keys
+        return (tag != null) ? tag : NULL_TAG;
+    }
+
+// MARK: - Inner Types
+
+    private final class InnerFutureTask<Ti, To> extends FutureTask<Void> implements Cancellable, TaskScheduler.Job
+    {
+        public InnerFutureTask(@NotNull Task<Ti, To> task, @NotNull InnerCallback<Ti, To> callback) {
+            this(new InnerRunnableTask<>(task, callback));
+        }
+
+        private InnerFutureTask(@NotNull InnerRunnableTask<Ti, To> runnableTask) {
+            super(runnableTask, null);
+
+            // Init instance variables
+            mRunnableTask = runnableTask;
+            runnableTask.mJob = this;
         }
 
         @Override
@@ -119,20 +461,277 @@ public class TaskQueue
             return cancel(true);
         }
 
+        @Override
+        public void run(@NotNull TaskScheduler.Release release) {
+            // Keep the running slot until the result of the task is delivered
+            InnerCallback<Ti, To> callback = mRunnableTask.mCallback;
+            callback.doOnFinish(() -> release.release(callback.mOverloaded));
+            run();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return mRunnableTask.mCallback.mDone.get();
+        }
+
+        @Override
+        public void drop(@NotNull IOException cause) {
+            if (cause instanceof StaleTaskException) {
+                countStaleTask(mRunnableTask.mTask.tag());
+            }
+            mRunnableTask.drop(cause);
+            super.cancel(false);
+        }
+
         private final InnerRunnableTask<Ti, To> mRunnableTask;
     }
 
-    private static final class InnerRunnableTask<Ti, To> implements Runnable, Cancellable
+    private final class InnerRunnableTask<Ti, To> implements Runnable, Cancellable
     {
-        public InnerRunnableTask(@NotNull Task<Ti, To> task, Callback<Ti, To> callback, boolean callbackOnUiThread) {
+        public InnerRunnableTask(@NotNull Task<Ti, To> task, @NotNull InnerCallback<Ti, To> callback) {
             // Init instance variables
             mTask = task.clone();
-            mCallback = (callback != null) ? new InnerCallback<>(callback, callbackOnUiThread) : null;
+            mCallback = callback;
+            mRateLimiters = rateLimitersOf(task);
         }
 
         @Override
         public void run() {
-            mTask.execute(mCallback);
+            // Ask the callback on its own thread, and get back to a worker thread once it decides
+            if (mCallback.hasAsyncCheck()) {
+                mCallback.checkShouldExecute(mTask, () -> mIoExecutor.execute(this::execute));
+            }
+            else {
+                execute();
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            return mCallback.cancel(mTask);
+        }
+
+        private void execute() {
+            try {
+                // The worker thread is released as soon as the request is sent
+                // The retried requests are sent on the worker threads of this queue too, and take their own tokens
+                mTask.executeAsync(mCallback, mConversionExecutor,
+                        action -> mScheduler.executeThrottled(mJob, mRateLimiters, action));
+            }
+            catch (Throwable ex) {
+                mCallback.onFailure(mTask, new ApplicationLayerError(ex));
+            }
+        }
+
+        private void drop(@NotNull IOException cause) {
+            mCallback.onFailure(mTask, new TransportLayerError(cause));
+        }
+
+        private final Task<Ti, To> mTask;
+        private final InnerCallback<Ti, To> mCallback;
+        private final List<RateLimiter> mRateLimiters;
+        private TaskScheduler.Job mJob;
+    }
+
+    /**
+     * Identifies tasks which may share a single HTTP call.
+     */
+    private static final class InnerFlightKey
+    {
+        private InnerFlightKey(@NotNull Task<?, ?> task) {
+            RequestEntity<?> entity = task.requestEntity();
+
+            // Init instance variables
+            mTaskClass = task.getClass();
+            mMethod = task.httpMethod();
+            mUri = entity.uri();
+            mHeaders = entity.headers();
+            mCookieStore = entity.cookieStore();
+            mBody = entity.body();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof InnerFlightKey)) {
+                return false;
+            }
+
+            InnerFlightKey other = (InnerFlightKey) obj;
+            return mTaskClass == other.mTaskClass &&
+                    Objects.equals(mMethod, other.mMethod) &&
+                    Objects.equals(mUri, other.mUri) &&
+                    Objects.equals(mHeaders, other.mHeaders) &&
+                    mCookieStore == other.mCookieStore &&
+                    mBody == other.mBody;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mTaskClass, mMethod, mUri, mHeaders, System.identityHashCode(mCookieStore), System.identityHashCode(mBody));
+        }
+
+        private final Class<?> mTaskClass;
+        private final String mMethod;
+        private final URI mUri;
+        private final HttpHeaders mHeaders;
+        private final CookieStore mCookieStore;
+        private final Object mBody;
+    }
+
+    /**
+     * Executes a single task and delivers its result to all attached members.
+     */
+    private final class InnerFlight<Ti, To> implements Callback<Ti, To>
+    {
+        private InnerFlight(@NotNull InnerFlightKey key) {
+            // Init instance variables
+            mKey = key;
+        }
+
+        @Override
+        public boolean onShouldExecute(Call<Ti> call) {
+            synchronized (mInnerLock) {
+                // All members left the flight
+                if (mMembers.isEmpty()) {
+                    close();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void onSuccess(Call<Ti> call, ResponseEntity<To> entity) {
+            for (InnerFlightMember<Ti, To> member : finish()) {
+                member.mCallback.onSuccess(member.mTask, entity);
+            }
+        }
+
+        @Override
+        public void onFailure(Call<Ti> call, RestApiError error) {
+            for (InnerFlightMember<Ti, To> member : finish()) {
+                member.mCallback.onFailure(member.mTask, error);
+            }
+        }
+
+        @Override
+        public void onCancel(Call<Ti> call) {
+            for (InnerFlightMember<Ti, To> member : finish()) {
+                member.mCallback.onCancel(member.mTask);
+            }
+        }
+
+        private void start(@NotNull Task<Ti, To> task) {
+            mFutureTask = new InnerFutureTask<>(task, new InnerCallback<>(this, null));
+
+            // Execute the FutureTask on the background thread
+            schedule(mFutureTask, task);
+        }
+
+        private boolean attach(@NotNull InnerFlightMember<Ti, To> member) {
+            // Guarded by mInnerLock
+            if (!mClosed) {
+                mMembers.add(member);
+            }
+            return !mClosed;
+        }
+
+        private void detach(@NotNull InnerFlightMember<Ti, To> member) {
+            InnerFutureTask<Ti, To> futureTask = null;
+
+            synchronized (mInnerLock) {
+                // Cancel the shared task when the last member leaves the flight
+                if (mMembers.remove(member) && mMembers.isEmpty() && !mClosed) {
+                    close();
+                    futureTask = mFutureTask;
+                }
+            }
+
+            if (futureTask != null) {
+                futureTask.cancel();
+            }
+        }
+
+        private @NotNull List<InnerFlightMember<Ti, To>> finish() {
+            synchronized (mInnerLock) {
+                close();
+                return new ArrayList<>(mMembers);
+            }
+        }
+
+        private void close() {
+            // Guarded by mInnerLock
+            if (!mClosed) {
+                mClosed = true;
+
+                if (mFlights.get(mKey) == this) {
+                    mFlights.remove(mKey);
+                }
+            }
+        }
+
+        private final InnerFlightKey mKey;
+        private final List<InnerFlightMember<Ti, To>> mMembers = new ArrayList<>();
+        private volatile InnerFutureTask<Ti, To> mFutureTask;
+        private boolean mClosed;
+    }
+
+    /**
+     * The tasks with the same tag. Once the set is closed, no task can be added to it, so a task is never left
+     * in a set which was removed from the registry.
+     */
+    private static final class InnerTaskSet
+    {
+        /**
+         * Adds the task, unless the set is closed.
+         */
+        private synchronized boolean add(@NotNull Cancellable task) {
+            if (mClosed) {
+                return false;
+            }
+            mTasks.add(task);
+            return true;
+        }
+
+        /**
+         * Removes the task, and closes the set if it has no tasks left.
+         *
+         * @return Whether the set is closed, so it must be removed from the registry.
+         */
+        private synchronized boolean remove(@NotNull Cancellable task) {
+            if (mTasks.remove(task) && mTasks.isEmpty()) {
+                mClosed = true;
+            }
+            return mClosed;
+        }
+
+        /**
+         * Closes the set and returns its tasks.
+         */
+        private synchronized @NotNull List<Cancellable> close() {
+            mClosed = true;
+
+            List<Cancellable> tasks = new ArrayList<>(mTasks);
+            mTasks.clear();
+            return tasks;
+        }
+
+        private final Set<Cancellable> mTasks = new HashSet<>();
+        private boolean mClosed;
+    }
+
+    /**
+     * A task attached to a flight which receives the result of the shared task.
+     */
+    private static final class InnerFlightMember<Ti, To> implements Cancellable
+    {
+        private InnerFlightMember(@NotNull Task<Ti, To> task, @NotNull InnerCallback<Ti, To> callback) {
+            // Init instance variables
+            mTask = task.clone();
+            mCallback = callback;
         }
 
         @Override
@@ -146,49 +745,134 @@ public class TaskQueue
 
     private static final class InnerCallback<Ti, To> extends CallbackDecorator<Ti, To>
     {
-        private InnerCallback(@NotNull Callback<Ti, To> callback, boolean callbackOnUiThread) {
+        /**
+         * Creates a callback which delivers results on the given executor in order, or on the calling thread
+         * if the executor is {@code null}.
+         */
+        private InnerCallback(Callback<Ti, To> callback, Executor executor) {
             super(callback);
 
             // Init instance variables
-            mExecutor = callbackOnUiThread ? MainThreadExecutor.shared() : InnerParallelWorkerThreadExecutor.shared();
+            mExecutor = (executor != null) ? new InnerSerialExecutor(executor) : null;
+            mHasCallback = (callback != null);
         }
 
         @Override
         public boolean onShouldExecute(Call<Ti> call) {
-            return !mDone.get() && awaitDone(mExecutor.submit(() -> InnerCallback.super.onShouldExecute(call)), Boolean.FALSE);
+            boolean result = !mDone.get();
+
+            // Ask the callback if task must be executed, unless it was asked already
+            if (result && mHasCallback) {
+                Boolean shouldExecute = mShouldExecute;
+                result = (shouldExecute != null) ? shouldExecute : super.onShouldExecute(call);
+            }
+
+            // The task will not be executed
+            if (!result) {
+                finish();
+            }
+            return result;
         }
 
         @Override
         public void onSuccess(Call<Ti> call, ResponseEntity<To> entity) {
             if (!mDone.getAndSet(true)) {
-                mExecutor.execute(() -> super.onSuccess(call, entity));
+                finish();
+                deliver(() -> super.onSuccess(call, entity));
             }
         }
 
         @Override
         public void onFailure(Call<Ti> call, RestApiError error) {
             if (!mDone.getAndSet(true)) {
-                mExecutor.execute(() -> super.onFailure(call, error));
+                mOverloaded = isOverload(error);
+                finish();
+                deliver(() -> super.onFailure(call, error));
             }
         }
 
         @Override
         public void onCancel(Call<Ti> call) {
             if (!mDone.getAndSet(true)) {
-                mExecutor.execute(() -> super.onCancel(call));
+                finish();
+                deliver(() -> super.onCancel(call));
             }
         }
 
-        private <T> T awaitDone(Future<T> future, T defaultValue) {
-            T result = defaultValue;
-            try {
-                // Waits for the computation to complete
-                result = future.get();
+        /**
+         * Adds the action to run once the task is finished, or runs it at once if it is finished already.
+         */
+        private void doOnFinish(@NotNull Runnable action) {
+            synchronized (mOnFinish) {
+                if (!mFinished) {
+                    mOnFinish.add(action);
+                    return;
+                }
             }
-            catch (ExecutionException | InterruptedException e) {
-                Logger.w(TAG, e);
+            action.run();
+        }
+
+        private void finish() {
+            List<Runnable> actions;
+
+            synchronized (mOnFinish) {
+                if (mFinished) {
+                    return;
+                }
+                mFinished = true;
+                actions = new ArrayList<>(mOnFinish);
+                mOnFinish.clear();
+            }
+
+            for (Runnable action : actions) {
+                action.run();
+            }
+        }
+
+        /**
+         * Whether the callback must be asked on its executor with {@link #checkShouldExecute(Call, Runnable)}.
+         */
+        private boolean hasAsyncCheck() {
+            return mHasCallback && mExecutor != null;
+        }
+
+        /**
+         * Asks the callback on its executor if task must be executed, and runs the action if so.
+         * Doesn't block the calling thread.
+         */
+        private void checkShouldExecute(Call<Ti> call, @NotNull Runnable action) {
+            mExecutor.execute(() -> {
+                boolean result = !mDone.get();
+
+                if (result) {
+                    try {
+                        result = super.onShouldExecute(call);
+                    }
+                    catch (Throwable ex) {
+                        Logger.w(TAG, ex);
+                        result = false;
+                    }
+                }
+                mShouldExecute = result;
+
+                // The task will not be executed
+                if (!result) {
+                    finish();
+                    return;
+                }
+                action.run();
+            });
+        }
+
+        private void deliver(@NotNull Runnable action) {
+            if (mHasCallback) {
+                if (mExecutor != null) {
+                    mExecutor.execute(action);
+                }
+                else {
+                    action.run();
+                }
             }
-            return result;
         }
 
         private boolean cancel(Call<Ti> call) {
@@ -196,19 +880,197 @@ public class TaskQueue
 
             // Cancel the supplied task
             if (result) {
+                finish();
                 try {
                     ((Cancellable) call).cancel();
                 }
                 catch (ClassCastException e) {
                     Logger.w(TAG, e);
                 }
-                awaitDone(mExecutor.submit(() -> super.onCancel(call)), null);
+
+                // Deliver the cancellation after the callbacks submitted earlier, without waiting for it
+                deliver(() -> super.onCancel(call));
             }
             return result;
         }
 
-        private final ExecutorService mExecutor;
+        private final Executor mExecutor;
+        private final boolean mHasCallback;
+        private volatile Boolean mShouldExecute;
         private final AtomicBoolean mDone = new AtomicBoolean(false);
+        private final List<Runnable> mOnFinish = new ArrayList<>();
+        private boolean mFinished;
+        private volatile boolean mOverloaded;
+    }
+
+    /**
+     * Runs the actions on the given executor one at a time, in the order they were submitted.
+     * The queued actions are run in a loop by a single task of the executor, so that an executor
+     * which runs the task on the calling thread doesn't recurse once per action.
+     */
+    private static final class InnerSerialExecutor implements Executor
+    {
+        private InnerSerialExecutor(@NotNull Executor executor) {
+            // Init instance variables
+            mExecutor = executor;
+        }
+
+        @Override
+        public void execute(@NotNull Runnable action) {
+            synchronized (mActions) {
+                mActions.addLast(action);
+
+                // The running loop takes the action
+                if (mRunning) {
+                    return;
+                }
+                mRunning = true;
+            }
+
+            try {
+                mExecutor.execute(this::runActions);
+            }
+            catch (RuntimeException ex) {
+
+                // Leave the queue to the next action, instead of stopping the delivery for good
+                synchronized (mActions) {
+                    mActions.removeLastOccurrence(action);
+                    mRunning = false;
+                }
+                throw ex;
+            }
+        }
+
+        private void runActions() {
+            while (true) {
+                Runnable action;
+
+                synchronized (mActions) {
+                    if ((action = mActions.pollFirst()) == null) {
+                        mRunning = false;
+                        return;
+                    }
+                }
+
+                try {
+                    action.run();
+                }
+                catch (Throwable ex) {
+                    Logger.w(TAG, ex);
+                }
+            }
+        }
+
+        private final Executor mExecutor;
+        private final ArrayDeque<Runnable> mActions = new ArrayDeque<>();
+        private boolean mRunning;
+    }
+
+    public static final class Builder
+    {
+        public Builder() {
+            // Do nothing
+        }
+
+        /**
+         * Sets the executor which sends the requests.
+         */
+        public @NotNull Builder ioExecutor(@NotNull Executor executor) {
+            Guard.notNull(executor, "executor is null");
+            mIoExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the executor which converts the responses, or {@code null} to convert them on the thread
+         * which received them.
+         */
+        public @NotNull Builder conversionExecutor(@Nullable Executor executor) {
+            mConversionExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the executor which delivers the results to the callbacks not bound to the UI thread.
+         */
+        public @NotNull Builder callbackExecutor(@NotNull Executor executor) {
+            Guard.notNull(executor, "executor is null");
+            mCallbackExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tasks to run concurrently.
+         */
+        public @NotNull Builder maxRunningTasks(int maxRunningTasks) {
+            Guard.isTrue(maxRunningTasks > 0, "maxRunningTasks <= 0");
+            mMaxRunningTasks = maxRunningTasks;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tasks for each host to run concurrently. The actual limit of a host adapts
+         * to its round-trip times and doesn't exceed this one.
+         */
+        public @NotNull Builder maxRunningTasksPerHost(int maxRunningTasksPerHost) {
+            Guard.isTrue(maxRunningTasksPerHost > 0, "maxRunningTasksPerHost <= 0");
+            mMaxRunningTasksPerHost = maxRunningTasksPerHost;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tasks waiting in the queue for a worker thread.
+         */
+        public @NotNull Builder maxQueuedTasks(int maxQueuedTasks) {
+            Guard.isTrue(maxQueuedTasks > 0, "maxQueuedTasks <= 0");
+            mMaxQueuedTasks = maxQueuedTasks;
+            return this;
+        }
+
+        /**
+         * Sets what to do with a task enqueued when the queue is full.
+         */
+        public @NotNull Builder overflowPolicy(@NotNull OverflowPolicy overflowPolicy) {
+            Guard.notNull(overflowPolicy, "overflowPolicy is null");
+            mOverflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time in milliseconds to block the enqueuing thread with {@link OverflowPolicy#BLOCK}.
+         */
+        public @NotNull Builder overflowTimeout(long overflowTimeout) {
+            Guard.isTrue(overflowTimeout >= 0, "overflowTimeout < 0");
+            mOverflowTimeout = overflowTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the policy which shares the worker threads between the groups of tasks.
+         */
+        public @NotNull Builder fairSharePolicy(@Nullable FairSharePolicy fairSharePolicy) {
+            mFairSharePolicy = fairSharePolicy;
+            return this;
+        }
+
+        public @NotNull TaskQueue build() {
+            return new TaskQueue(this);
+        }
+
+        private Executor mIoExecutor = ParallelWorkerThreadExecutor.shared();
+        private Executor mConversionExecutor;
+        private Executor mCallbackExecutor = InnerParallelWorkerThreadExecutor.shared();
+        private int mMaxRunningTasks = MAX_RUNNING_TASKS;
+        private int mMaxRunningTasksPerHost = MAX_RUNNING_TASKS_PER_HOST;
+        private int mMaxQueuedTasks = MAX_QUEUED_TASKS;
+        private OverflowPolicy mOverflowPolicy = OverflowPolicy.FAIL;
+        private long mOverflowTimeout = OVERFLOW_TIMEOUT;
+        private FairSharePolicy mFairSharePolicy;
+    }
+
+    private static final class SingletonHolder
+    {
+        private static final TaskQueue SHARED_INSTANCE = new Builder().build();
     }
 
     private static final class InnerParallelWorkerThreadExecutor extends AbstractExecutorService
@@ -279,16 +1141,64 @@ public class TaskQueue
         private static final BlockingQueue<Runnable> sPoolWorkQueue = new LinkedBlockingQueue<>(128);
 
         // An {@link Executor} that can be used to execute tasks in parallel.
+        // When the work queue is full, the callback is run on the delivering thread instead of being lost,
+        // which slows the producer down until the pool catches up.
         private final Executor sThreadPoolExecutor = new ThreadPoolExecutor(CORE_POOL_SIZE, MAXIMUM_POOL_SIZE,
-                KEEP_ALIVE, TimeUnit.SECONDS, sPoolWorkQueue, sThreadFactory);
+                KEEP_ALIVE, TimeUnit.SECONDS, sPoolWorkQueue, sThreadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
     }
 
 // MARK: - Constants
 
     private static final String TAG = TaskQueue.class.getSimpleName();
 
+    private static final Object NULL_TAG = new Object();
+
+    // In milliseconds
+    private static final long PRIORITY_AGING_INTERVAL = 2 * 1000;
+
+    private static final int MAX_RUNNING_TASKS = NetworkConfig.Dispatcher.MAX_REQUESTS;
+    private static final int MAX_RUNNING_TASKS_PER_HOST = NetworkConfig.Dispatcher.MAX_REQUESTS_PER_HOST;
+
+    // The status codes of the responses of an overloaded server
+    private static final List<Integer> OVERLOAD_STATUS_CODES = Arrays.asList(429, 502, 503, 504);
+
+    // The queue is unbounded unless configured otherwise
+    private static final int MAX_QUEUED_TASKS = Integer.MAX_VALUE;
+
+    // In milliseconds
+    private static final long OVERFLOW_TIMEOUT = 10 * 1000;
+
+    private static final int MAX_STALE_TASK_COUNTS = 64;
+
+    // The safe HTTP methods, which may share a single HTTP call
+    private static final List<String> COALESCED_METHODS = Arrays.asList(MethodName.GET, MethodName.HEAD, MethodName.OPTIONS);
+
 // MARK: - Variables
 
-    private static final LinkedMultiValueMap<String, Cancellable> sTasks = new LinkedMultiValueMap<>();
-    private static final Object sInnerLock = new Object();
+    private final ConcurrentMap<Object, InnerTaskSet> mTasks = new ConcurrentHashMap<>();
+
+    // The counts of the recently shed tags, which outlive the task sets of the tags
+    private final Map<Object, Long> mStaleTaskCounts =
+            new LinkedHashMap<Object, Long>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Long> eldest) {
+                    return size() > MAX_STALE_TASK_COUNTS;
+                }
+            };
+
+    private final Map<InnerFlightKey, InnerFlight<?, ?>> mFlights = new HashMap<>();
+
+    private final Object mInnerLock = new Object();
+
+    private final List<RateLimiter> mRateLimiters = new CopyOnWriteArrayList<>();
+
+    private final Executor mIoExecutor;
+
+    private final Executor mConversionExecutor;
+
+    private final Executor mCallbackExecutor;
+
+    private final FairSharePolicy mFairSharePolicy;
+
+    private final TaskScheduler mScheduler;
 }
@@ -0,0 +1,872 @@
+package com.roxiemobile.networkingapi.network.rest;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.networkingapi.network.NetworkConfig;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.DeadlineExceededException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.QueueOverflowException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.StaleTaskException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands tasks over to the worker executor in order of their priority. The number of running tasks
+ * is bounded, so that the order is not lost in the executor's own queue.
+ * A task which waits longer than the aging interval is promoted to the next priority class,
+ * so that low priority tasks can't starve.
+ * <p>
+ * The number of running tasks per host is bounded by an adaptive {@link ConcurrencyLimit} of the host,
+ * which is fed by the round-trip times of the host's tasks only, so that a degrading server is not flooded
+ * with requests and a slow host doesn't hold back a fast one. The tasks of a saturated host wait in the queue
+ * and are skipped over, so they don't hold up the tasks of other hosts.
+ * <p>
+ * A task takes a token from each of its {@link RateLimiter}s when it's handed over to the worker executor.
+ * The tasks which find a bucket empty wait in the queue and are skipped over too, and the queue is woken up
+ * on a timer once their tokens are refilled. A cancelled task leaves the queue without spending any token.
+ * <p>
+ * The tasks whose deadline expires while they wait in the queue, and the tasks which wait longer than
+ * their maximum queue age, are dropped without taking a worker thread. The queue is woken up on a timer
+ * when the next task expires, so that it is dropped even while no running task finishes.
+ * <p>
+ * Within a priority class, the tasks are taken from their groups in proportion to the group weights
+ * of the {@link FairSharePolicy}, or in order of arrival if there is no policy.
+ * <p>
+ * The number of queued tasks is bounded. A task which doesn't fit in the queue is handled
+ * by the {@link OverflowPolicy}, and is failed with {@link QueueOverflowException} if it can't be queued.
+ */
+final class TaskScheduler
+{
+// MARK: - Construction
+
+    TaskScheduler(@NotNull Executor executor, int maxRunningTasks, int maxRunningTasksPerHost, long agingInterval,
+            int maxQueuedTasks, @NotNull OverflowPolicy overflowPolicy, long overflowTimeout, @Nullable FairSharePolicy fairSharePolicy) {
+        Guard.notNull(executor, "executor is null");
+        Guard.isTrue(maxRunningTasks > 0, "maxRunningTasks <= 0");
+        Guard.isTrue(maxRunningTasksPerHost > 0, "maxRunningTasksPerHost <= 0");
+        Guard.isTrue(agingInterval > 0, "agingInterval <= 0");
+        Guard.isTrue(maxQueuedTasks > 0, "maxQueuedTasks <= 0");
+        Guard.notNull(overflowPolicy, "overflowPolicy is null");
+        Guard.isTrue(overflowTimeout >= 0, "overflowTimeout < 0");
+
+        // Init instance variables
+        mExecutor = executor;
+        mMaxRunningTasks = maxRunningTasks;
+        mMaxRunningTasksPerHost = maxRunningTasksPerHost;
+        mAgingInterval = TimeUnit.MILLISECONDS.toNanos(agingInterval);
+        mMaxQueuedTasks = maxQueuedTasks;
+        mOverflowPolicy = overflowPolicy;
+        mOverflowTimeout = TimeUnit.MILLISECONDS.toNanos(overflowTimeout);
+        mFairSharePolicy = fairSharePolicy;
+
+        int count = PRIORITIES.length;
+        mQueues = new ArrayList<>(count);
+        mQueuedTaskCounts = new int[count];
+        mStartedTaskCounts = new long[count];
+        mTotalWaitTimes = new long[count];
+        mMaxWaitTimes = new long[count];
+
+        for (int idx = 0; idx < count; idx++) {
+            mQueues.add(new LinkedHashMap<>());
+        }
+    }
+
+// MARK: - Methods
+
+    /**
+     * Schedules the job for execution with the given priority.
+     * A {@code null} host is not subject to the per-host limit, a zero deadline or stale time never expires.
+     * The job becomes stale at the stale time, a {@link System#nanoTime()} like the deadline.
+     * The group shares the worker threads with the other groups according to the fair share policy.
+     * The job is started once every rate limiter has a token for it.
+     * <p>
+     * Blocks the calling thread while the queue is full if the overflow policy is {@link OverflowPolicy#BLOCK}.
+     */
+    void execute(@NotNull Job job, @NotNull TaskPriority priority, @Nullable String host, @Nullable String group,
+            long deadline, long staleTime, @NotNull List<RateLimiter> rateLimiters) {
+        Guard.notNull(job, "job is null");
+        Guard.notNull(priority, "priority is null");
+        Guard.notNull(rateLimiters, "rateLimiters is null");
+        Entry shedEntry = null;
+        boolean rejected = false;
+
+        synchronized (mLock) {
+            if (queuedTaskCount() >= mMaxQueuedTasks) {
+                switch (mOverflowPolicy) {
+                    case BLOCK:
+                        try {
+                            rejected = !waitForCapacity(mOverflowTimeout);
+                        }
+                        catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            rejected = true;
+                        }
+                        break;
+
+                    case SHED_LOWEST_PRIORITY:
+                        shedEntry = removeLowest(priority);
+                        rejected = (shedEntry == null);
+                        break;
+
+                    default:
+                        rejected = true;
+                        break;
+                }
+            }
+
+            if (rejected) {
+                mRejectedTaskCount++;
+            }
+            else {
+                enqueued(new Entry(job, priority, host, group, deadline, staleTime, rateLimiters), false);
+
+                if (shedEntry != null) {
+                    mShedTaskCount++;
+                }
+            }
+        }
+
+        // Fail the task which didn't fit in the queue
+        if (rejected) {
+            drop(job, new QueueOverflowException());
+            return;
+        }
+        if (shedEntry != null) {
+            shedEntry.drop(new QueueOverflowException());
+        }
+        promote();
+    }
+
+    /**
+     * Runs the action on the worker executor once every rate limiter has a token for it, without holding a thread
+     * while it waits. The action of a cancelled job runs at once, without spending any token.
+     * <p>
+     * Used for the retries of the running jobs, which keep their running slot in the meantime.
+     */
+    void executeThrottled(@NotNull Job job, @NotNull List<RateLimiter> rateLimiters, @NotNull Runnable action) {
+        Guard.notNull(job, "job is null");
+        Guard.notNull(rateLimiters, "rateLimiters is null");
+        Guard.notNull(action, "action is null");
+        executeThrottled(job, rateLimiters, action, 0);
+    }
+
+    /**
+     * Waits until the queue has room for a task.
+     *
+     * @param timeout The maximum time to wait, in milliseconds.
+     * @return {@code false} if the timeout elapsed before the queue had room.
+     */
+    boolean awaitCapacity(long timeout) throws InterruptedException {
+        Guard.isTrue(timeout >= 0, "timeout < 0");
+
+        synchronized (mLock) {
+            return waitForCapacity(TimeUnit.MILLISECONDS.toNanos(timeout));
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting in the queue.
+     */
+    int queuedTaskCount() {
+        synchronized (mLock) {
+            int count = 0;
+
+            for (int queuedTaskCount : mQueuedTaskCounts) {
+                count += queuedTaskCount;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Returns the number of tasks failed because the queue was full.
+     */
+    long rejectedTaskCount() {
+        synchronized (mLock) {
+            return mRejectedTaskCount;
+        }
+    }
+
+    /**
+     * Returns the number of queued tasks failed to make room for the tasks of a higher priority.
+     */
+    long shedTaskCount() {
+        synchronized (mLock) {
+            return mShedTaskCount;
+        }
+    }
+
+    /**
+     * Returns the queue wait statistics of the tasks with the given priority.
+     */
+    @NotNull QueueWaitStats stats(@NotNull TaskPriority priority) {
+        Guard.notNull(priority, "priority is null");
+        int idx = priority.ordinal();
+
+        synchronized (mLock) {
+            return new QueueWaitStats(priority, mQueuedTaskCounts[idx], mStartedTaskCounts[idx],
+                    TimeUnit.NANOSECONDS.toMillis(mTotalWaitTimes[idx]), TimeUnit.NANOSECONDS.toMillis(mMaxWaitTimes[idx]));
+        }
+    }
+
+    /**
+     * Returns the number of queued and active tasks of every host which has any.
+     */
+    @NotNull List<HostQueueStats> hostStats() {
+        List<HostQueueStats> stats = new ArrayList<>();
+
+        synchronized (mLock) {
+            for (Map.Entry<String, HostCounter> entry : mHostCounters.entrySet()) {
+                HostCounter counter = entry.getValue();
+                int limit = hostLimit(entry.getKey()).limit();
+                stats.add(new HostQueueStats(entry.getKey(), counter.mQueued, counter.mActive, limit));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the adaptive limit of the running tasks of the host.
+     */
+    @NotNull ConcurrencyLimit concurrencyLimit(@NotNull String host) {
+        Guard.notEmpty(host, "host is empty");
+
+        synchronized (mLock) {
+            return hostLimit(host);
+        }
+    }
+
+// MARK: - Private Methods
+
+    private void promote() {
+        List<Entry> expiredEntries;
+        long now = System.nanoTime();
+
+        synchronized (mLock) {
+            expiredEntries = removeExpired(now);
+        }
+
+        // Drop the tasks which can't complete by their deadline anymore, and the tasks nobody waits for
+        for (Entry entry : expiredEntries) {
+            entry.drop(entry.isPastDeadline(now) ? new DeadlineExceededException() : new StaleTaskException());
+        }
+
+        while (true) {
+            Entry entry;
+
+            synchronized (mLock) {
+                if (mRunningTasks >= mMaxRunningTasks) {
+                    return;
+                }
+
+                now = System.nanoTime();
+                if ((entry = poll(now)) == null) {
+
+                    // Come back once the first throttled task has its tokens
+                    if (mTokenWaitTime != Long.MAX_VALUE) {
+                        wakeUpAt(now + mTokenWaitTime);
+                    }
+                    return;
+                }
+                mRunningTasks++;
+            }
+
+            try {
+                mExecutor.execute(entry);
+            }
+            catch (RejectedExecutionException ex) {
+                Logger.w(TAG, ex);
+
+                // Retry when a running task finishes
+                synchronized (mLock) {
+                    mRunningTasks--;
+
+                    if (entry.mHost != null) {
+                        hostCounter(entry.mHost).mActive--;
+                    }
+                    if (entry.mHostLimit != null) {
+                        entry.mHostLimit.onIgnored();
+                        entry.mHostLimit = null;
+                    }
+                    enqueued(entry, true);
+                }
+                return;
+            }
+        }
+    }
+
+    private Entry poll(long now) {
+        // Guarded by mLock
+        Entry entry = null;
+        long bestRank = Long.MAX_VALUE;
+        mTokenWaitTime = Long.MAX_VALUE;
+
+        // Choose the entry of a non-saturated host with the best priority, counting in the time it waited
+        for (Map<String, ArrayDeque<Entry>> groups : mQueues) {
+            Entry candidate = nextInClass(groups, now);
+
+            if (candidate != null) {
+                long rank = candidate.mPriority.ordinal() - (now - candidate.mEnqueueTime) / mAgingInterval;
+
+                if (rank < bestRank) {
+                    bestRank = rank;
+                    entry = candidate;
+                }
+            }
+        }
+
+        if (entry != null) {
+            Map<String, ArrayDeque<Entry>> groups = mQueues.get(entry.mPriority.ordinal());
+            ArrayDeque<Entry> queue = groups.get(entry.mGroup);
+
+            queue.removeFirstOccurrence(entry);
+            if (queue.isEmpty()) {
+                groups.remove(entry.mGroup);
+            }
+
+            // Charge the group for the started task, before it may be forgotten as idle
+            GroupCounter group = mGroupCounters.get(entry.mGroup);
+            mVirtualTime = Math.max(mVirtualTime, group.mVirtualTime);
+            group.mVirtualTime += 1.0 / group.mWeight;
+
+            dequeued(entry);
+            mLock.notifyAll();
+
+            int idx = entry.mPriority.ordinal();
+            long waitTime = now - entry.mEnqueueTime;
+
+            // Update queue wait statistics
+            mStartedTaskCounts[idx]++;
+            mTotalWaitTimes[idx] += waitTime;
+            mMaxWaitTimes[idx] = Math.max(mMaxWaitTimes[idx], waitTime);
+
+            // Update host counters
+            if (entry.mHost != null) {
+                hostCounter(entry.mHost).mActive++;
+            }
+
+            // Measure the round-trip time of the task, and spend its tokens, unless it's cancelled already
+            if (!entry.mJob.isFinished()) {
+                if (entry.mHost != null) {
+                    entry.mHostLimit = hostLimit(entry.mHost);
+                    entry.mStartTime = entry.mHostLimit.onStart();
+                }
+
+                if (!entry.mRateLimiters.isEmpty()) {
+                    long throttledTime = (entry.mThrottleTime != 0) ? now - entry.mThrottleTime : 0;
+                    RateLimiter.acquire(entry.mRateLimiters, now, throttledTime);
+                }
+            }
+        }
+        return entry;
+    }
+
+    private @Nullable Entry nextInClass(@NotNull Map<String, ArrayDeque<Entry>> groups, long now) {
+        // Guarded by mLock
+        Entry entry = null;
+        double bestVirtualTime = Double.MAX_VALUE;
+
+        // Choose the runnable entry of the group which got the smallest share of the worker threads so far
+        for (ArrayDeque<Entry> queue : groups.values()) {
+            Entry candidate = firstRunnable(queue, now);
+
+            if (candidate != null) {
+                double virtualTime = mGroupCounters.get(candidate.mGroup).mVirtualTime;
+
+                if (virtualTime < bestVirtualTime
+                        || (virtualTime == bestVirtualTime && candidate.mEnqueueTime - entry.mEnqueueTime < 0)) {
+                    bestVirtualTime = virtualTime;
+                    entry = candidate;
+                }
+            }
+        }
+        return entry;
+    }
+
+    private @NotNull List<Entry> removeExpired(long now) {
+        // Guarded by mLock
+        List<Entry> expiredEntries = Collections.emptyList();
+        long nextExpiryTime = 0;
+
+        for (Map<String, ArrayDeque<Entry>> groups : mQueues) {
+            for (Iterator<ArrayDeque<Entry>> groupIt = groups.values().iterator(); groupIt.hasNext(); ) {
+                ArrayDeque<Entry> queue = groupIt.next();
+
+                for (Iterator<Entry> it = queue.iterator(); it.hasNext(); ) {
+                    Entry entry = it.next();
+
+                    if (entry.isPastDeadline(now) || entry.isStale(now)) {
+                        it.remove();
+
+                        if (expiredEntries.isEmpty()) {
+                            expiredEntries = new ArrayList<>();
+                        }
+                        expiredEntries.add(entry);
+                        dequeued(entry);
+                    }
+                    else {
+                        long expiryTime = entry.expiryTime();
+
+                        if (expiryTime != 0 && (nextExpiryTime == 0 || expiryTime - nextExpiryTime < 0)) {
+                            nextExpiryTime = expiryTime;
+                        }
+                    }
+                }
+
+                if (queue.isEmpty()) {
+                    groupIt.remove();
+                }
+            }
+        }
+
+        if (!expiredEntries.isEmpty()) {
+            mLock.notifyAll();
+        }
+
+        // Come back when the next task expires, even if no running task finishes in the meantime
+        if (nextExpiryTime != 0) {
+            wakeUpAt(nextExpiryTime);
+        }
+        return expiredEntries;
+    }
+
+    private @Nullable Entry removeLowest(@NotNull TaskPriority priority) {
+        // Guarded by mLock
+
+        // Take the newest entry of the largest group in the lowest priority class below the given one
+        for (int idx = mQueues.size() - 1; idx > priority.ordinal(); idx--) {
+            ArrayDeque<Entry> largestQueue = null;
+
+            for (ArrayDeque<Entry> queue : mQueues.get(idx).values()) {
+                if (largestQueue == null || queue.size() > largestQueue.size()) {
+                    largestQueue = queue;
+                }
+            }
+
+            if (largestQueue != null) {
+                Entry entry = largestQueue.pollLast();
+
+                if (largestQueue.isEmpty()) {
+                    mQueues.get(idx).remove(entry.mGroup);
+                }
+                dequeued(entry);
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private boolean waitForCapacity(long timeout) throws InterruptedException {
+        // Guarded by mLock
+        long deadline = System.nanoTime() + timeout;
+
+        while (queuedTaskCount() >= mMaxQueuedTasks) {
+            long remainingTime = deadline - System.nanoTime();
+
+            if (remainingTime <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(mLock, remainingTime);
+        }
+        return true;
+    }
+
+    private void enqueued(@NotNull Entry entry, boolean first) {
+        // Guarded by mLock
+        Map<String, ArrayDeque<Entry>> groups = mQueues.get(entry.mPriority.ordinal());
+        ArrayDeque<Entry> queue = groups.get(entry.mGroup);
+
+        if (queue == null) {
+            queue = new ArrayDeque<>();
+            groups.put(entry.mGroup, queue);
+        }
+
+        if (first) {
+            queue.addFirst(entry);
+        }
+        else {
+            queue.addLast(entry);
+        }
+        mQueuedTaskCounts[entry.mPriority.ordinal()]++;
+
+        // A group which was idle doesn't get credit for the time it had no tasks
+        GroupCounter group = mGroupCounters.get(entry.mGroup);
+        if (group == null) {
+            int weight = (mFairSharePolicy != null) ? mFairSharePolicy.weightOf(entry.mGroup) : 1;
+            group = new GroupCounter(weight, mVirtualTime);
+            mGroupCounters.put(entry.mGroup, group);
+        }
+        group.mQueued++;
+
+        if (entry.mHost != null) {
+            hostCounter(entry.mHost).mQueued++;
+        }
+    }
+
+    private void dequeued(@NotNull Entry entry) {
+        // Guarded by mLock
+        mQueuedTaskCounts[entry.mPriority.ordinal()]--;
+
+        // Forget the idle group
+        GroupCounter group = mGroupCounters.get(entry.mGroup);
+        if (--group.mQueued == 0) {
+            mGroupCounters.remove(entry.mGroup);
+        }
+
+        if (entry.mHost != null) {
+            HostCounter counter = hostCounter(entry.mHost);
+            counter.mQueued--;
+
+            // Forget the idle host
+            if (counter.mActive == 0 && counter.mQueued == 0) {
+                mHostCounters.remove(entry.mHost);
+            }
+        }
+    }
+
+    private static void drop(@NotNull Job job, @NotNull IOException cause) {
+        try {
+            job.drop(cause);
+        }
+        catch (Throwable ex) {
+            Logger.w(TAG, ex);
+        }
+    }
+
+    private @Nullable Entry firstRunnable(@NotNull ArrayDeque<Entry> queue, long now) {
+        // Guarded by mLock
+        Set<String> saturatedHosts = null;
+
+        for (Entry entry : queue) {
+            // A cancelled task is started at once, so that it leaves the queue without spending any token
+            if (entry.mJob.isFinished()) {
+                return entry;
+            }
+
+            if (entry.mHost != null) {
+                if (saturatedHosts != null && saturatedHosts.contains(entry.mHost)) {
+                    continue;
+                }
+
+                if (hostCounter(entry.mHost).mActive >= hostLimit(entry.mHost).limit()) {
+                    // Don't look the host up again
+                    if (saturatedHosts == null) {
+                        saturatedHosts = new HashSet<>();
+                    }
+                    saturatedHosts.add(entry.mHost);
+                    continue;
+                }
+            }
+
+            if (!entry.mRateLimiters.isEmpty()) {
+                long waitTime = RateLimiter.waitTime(entry.mRateLimiters, now);
+
+                // Skip the task until its tokens are refilled
+                if (waitTime > 0) {
+                    if (entry.mThrottleTime == 0) {
+                        entry.mThrottleTime = now;
+                    }
+                    mTokenWaitTime = Math.min(mTokenWaitTime, waitTime);
+                    continue;
+                }
+            }
+            return entry;
+        }
+        return null;
+    }
+
+    private void wakeUpAt(long time) {
+        // Guarded by mLock
+
+        // An earlier wake-up is on the timer already
+        if (mWakeUpTime != 0 && mWakeUpTime - time <= 0) {
+            return;
+        }
+        mWakeUpTime = time;
+
+        RATE_LIMIT_TIMER.schedule(() -> {
+            synchronized (mLock) {
+                if (mWakeUpTime == time) {
+                    mWakeUpTime = 0;
+                }
+            }
+            promote();
+        }, time - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void executeThrottled(@NotNull Job job, @NotNull List<RateLimiter> rateLimiters, @NotNull Runnable action,
+            long throttleTime) {
+        long now = System.nanoTime();
+
+        if (!rateLimiters.isEmpty() && !job.isFinished()) {
+            long waitTime = RateLimiter.waitTime(rateLimiters, now);
+
+            // Come back once the tokens are refilled, without holding a thread
+            if (waitTime > 0) {
+                long throttledSince = (throttleTime != 0) ? throttleTime : now;
+                RATE_LIMIT_TIMER.schedule(() -> executeThrottled(job, rateLimiters, action, throttledSince),
+                        waitTime, TimeUnit.NANOSECONDS);
+                return;
+            }
+            RateLimiter.acquire(rateLimiters, now, (throttleTime != 0) ? now - throttleTime : 0);
+        }
+        mExecutor.execute(action);
+    }
+
+    private @NotNull HostCounter hostCounter(@NotNull String host) {
+        // Guarded by mLock
+        HostCounter counter = mHostCounters.get(host);
+
+        if (counter == null) {
+            counter = new HostCounter();
+            mHostCounters.put(host, counter);
+        }
+        return counter;
+    }
+
+    private @NotNull ConcurrencyLimit hostLimit(@NotNull String host) {
+        // Guarded by mLock
+        ConcurrencyLimit limit = mHostLimits.get(host);
+
+        if (limit == null) {
+            limit = new ConcurrencyLimit(Math.min(NetworkConfig.ConcurrencyLimit.MIN_LIMIT, mMaxRunningTasksPerHost),
+                    Math.min(NetworkConfig.ConcurrencyLimit.INITIAL_LIMIT, mMaxRunningTasksPerHost), mMaxRunningTasksPerHost);
+            mHostLimits.put(host, limit);
+        }
+        return limit;
+    }
+
+    private void finished(@NotNull Entry entry, boolean overloaded) {
+        if (entry.mHostLimit != null) {
+            entry.mHostLimit.onComplete(entry.mStartTime, overloaded);
+        }
+
+        synchronized (mLock) {
+            mRunningTasks--;
+
+            if (entry.mHost != null) {
+                HostCounter counter = hostCounter(entry.mHost);
+                counter.mActive--;
+
+                // Forget the idle host
+                if (counter.mActive == 0 && counter.mQueued == 0) {
+                    mHostCounters.remove(entry.mHost);
+                }
+            }
+        }
+        promote();
+    }
+
+// MARK: - Inner Types
+
+    /**
+     * A unit of work which keeps its running slot until it calls the release action.
+     */
+    interface Job
+    {
+        void run(@NotNull Release release);
+
+        /**
+         * Called instead of {@link #run(Release)} when the job is dropped from the queue,
+         * because its deadline expired or the queue was full.
+         */
+        void drop(@NotNull IOException cause);
+
+        /**
+         * Whether the job was cancelled or finished otherwise, so it doesn't need the tokens
+         * of its rate limiters anymore.
+         */
+        default boolean isFinished() {
+            return false;
+        }
+    }
+
+    /**
+     * Gives the running slot of a job back.
+     */
+    interface Release
+    {
+        /**
+         * @param overloaded Whether the job failed in a way that indicates an overloaded host.
+         */
+        void release(boolean overloaded);
+    }
+
+    private final class Entry implements Runnable
+    {
+        private Entry(@NotNull Job job, @NotNull TaskPriority priority, @Nullable String host, @Nullable String group,
+                long deadline, long staleTime, @NotNull List<RateLimiter> rateLimiters) {
+            // Init instance variables
+            mJob = job;
+            mPriority = priority;
+            mHost = host;
+            mGroup = group;
+            mDeadline = deadline;
+            mStaleTime = staleTime;
+            mRateLimiters = rateLimiters;
+            mEnqueueTime = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            try {
+                mJob.run(this::release);
+            }
+            catch (Throwable ex) {
+                Logger.w(TAG, ex);
+                release(false);
+            }
+        }
+
+        private boolean isPastDeadline(long now) {
+            return mDeadline != 0 && now - mDeadline >= 0;
+        }
+
+        private boolean isStale(long now) {
+            return mStaleTime != 0 && now - mStaleTime >= 0;
+        }
+
+        /**
+         * The time the entry expires at, either by its deadline or by its stale time, or 0 if it never expires.
+         */
+        private long expiryTime() {
+            if (mDeadline == 0 || (mStaleTime != 0 && mStaleTime - mDeadline < 0)) {
+                return mStaleTime;
+            }
+            return mDeadline;
+        }
+
+        private void drop(@NotNull IOException cause) {
+            // The job never took a running slot
+            mReleased.set(true);
+            TaskScheduler.drop(mJob, cause);
+        }
+
+        private void release(boolean overloaded) {
+            if (!mReleased.getAndSet(true)) {
+                finished(this, overloaded);
+            }
+        }
+
+        private final Job mJob;
+        private final AtomicBoolean mReleased = new AtomicBoolean(false);
+        private final TaskPriority mPriority;
+        private final String mHost;
+        private final String mGroup;
+        private final long mDeadline;
+        private final long mStaleTime;
+        private final List<RateLimiter> mRateLimiters;
+        private final long mEnqueueTime;
+        private long mThrottleTime;
+        private ConcurrencyLimit mHostLimit;
+        private long mStartTime;
+    }
+
+    private static final class HostCounter
+    {
+        private int mQueued;
+        private int mActive;
+    }
+
+    private static final class GroupCounter
+    {
+        private GroupCounter(int weight, double virtualTime) {
+            // Init instance variables
+            mWeight = weight;
+            mVirtualTime = virtualTime;
+        }
+
+        private final int mWeight;
+        private int mQueued;
+        private double mVirtualTime;
+    }
+
+// MARK: - Constants
+
+    private static final String TAG = TaskScheduler.class.getSimpleName();
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private static final int MAX_HOST_LIMITS = 64;
+
+    // Wakes the queues up when the tokens of their throttled tasks are refilled, and when their queued tasks expire
+    private static final ScheduledExecutorService RATE_LIMIT_TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, TaskScheduler.class.getSimpleName() + " RateLimitTimer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+// MARK: - Variables
+
+    private final Object mLock = new Object();
+
+    private final Executor mExecutor;
+
+    private final int mMaxRunningTasks;
+
+    private final int mMaxRunningTasksPerHost;
+
+    private final long mAgingInterval;
+
+    private final int mMaxQueuedTasks;
+
+    private final OverflowPolicy mOverflowPolicy;
+
+    private final long mOverflowTimeout;
+
+    private final FairSharePolicy mFairSharePolicy;
+
+    private final List<Map<String, ArrayDeque<Entry>>> mQueues;
+
+    private final int[] mQueuedTaskCounts;
+
+    private final long[] mStartedTaskCounts;
+
+    private final long[] mTotalWaitTimes;
+
+    private final long[] mMaxWaitTimes;
+
+    private final Map<String, HostCounter> mHostCounters = new HashMap<>();
+
+    private final Map<String, GroupCounter> mGroupCounters = new HashMap<>();
+
+    // The limits of the recently run hosts, which outlive the idle host counters
+    private final Map<String, ConcurrencyLimit> mHostLimits =
+            new LinkedHashMap<String, ConcurrencyLimit>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ConcurrencyLimit> eldest) {
+                    return size() > MAX_HOST_LIMITS;
+                }
+            };
+
+    private double mVirtualTime = 0;
+
+    private int mRunningTasks = 0;
+
+    private long mRejectedTaskCount = 0;
+
+    private long mShedTaskCount = 0;
+
+    // The time until the first throttled task has its tokens, found by the last poll
+    private long mTokenWaitTime = Long.MAX_VALUE;
+
+    private long mWakeUpTime = 0;
+}
@@ -0,0 +1,260 @@
+package com.roxiemobile.networkingapi.network.rest.config;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.networkingapi.network.http.HttpDate;
+import com.roxiemobile.networkingapi.network.http.HttpHeaders;
+import com.roxiemobile.networkingapi.network.http.HttpStatus;
+import com.roxiemobile.networkingapi.network.rest.HttpResult;
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.CircuitBreakerOpenException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries connection failures and the retryable response statuses with exponential backoff and full jitter,
+ * within the limits on the number of attempts and the overall time.
+ * A {@code Retry-After} response header takes precedence over the computed delay.
+ * <p>
+ * Use it for idempotent requests only.
+ */
+public final class DefaultRetryPolicy implements RetryPolicy
+{
+// MARK: - Construction
+
+    private DefaultRetryPolicy(@NotNull Builder builder) {
+        // Init instance variables
+        mMaxAttempts = builder.mMaxAttempts;
+        mBaseDelay = builder.mBaseDelay;
+        mMaxDelay = builder.mMaxDelay;
+        mTimeBudget = builder.mTimeBudget;
+        mRetryableStatuses = Collections.unmodifiableSet(EnumSet.copyOf(builder.mRetryableStatuses));
+        mRetryableExceptions = Collections.unmodifiableSet(new HashSet<>(builder.mRetryableExceptions));
+    }
+
+// MARK: - Methods
+
+    @Override
+    public long retryDelay(@NotNull HttpResult result, int attempt, long elapsedTime) {
+        Guard.notNull(result, "result is null");
+
+        // Check the number of attempts
+        if (attempt >= mMaxAttempts) {
+            return NO_RETRY;
+        }
+
+        long delay;
+        if (result.isSuccess()) {
+            ResponseEntity<byte[]> entity = result.value();
+
+            // Retry the retryable response statuses only
+            if (!mRetryableStatuses.contains(entity.status())) {
+                return NO_RETRY;
+            }
+
+            long retryAfter = retryAfter(entity.headers());
+            delay = (retryAfter >= 0) ? retryAfter : backoffDelay(attempt);
+        }
+        else {
+            // Retry the retryable exceptions only
+            if (!isRetryable(result.error())) {
+                return NO_RETRY;
+            }
+            delay = backoffDelay(attempt);
+        }
+
+        // Check the overall time budget
+        return (elapsedTime + delay < mTimeBudget) ? delay : NO_RETRY;
+    }
+
+    /**
+     * The maximum number of attempts, including the first one.
+     */
+    public int maxAttempts() {
+        return mMaxAttempts;
+    }
+
+    /**
+     * The upper bound in milliseconds of the delay before the second attempt.
+     */
+    public long baseDelay() {
+        return mBaseDelay;
+    }
+
+    /**
+     * The upper bound in milliseconds of the delay before any attempt.
+     */
+    public long maxDelay() {
+        return mMaxDelay;
+    }
+
+    /**
+     * The time in milliseconds after the first attempt within which the last attempt must be sent.
+     */
+    public long timeBudget() {
+        return mTimeBudget;
+    }
+
+// MARK: - Private Methods
+
+    private long backoffDelay(int attempt) {
+        // Exponential backoff with full jitter
+        long ceiling = mBaseDelay << Math.min(attempt - 1, MAX_BACKOFF_SHIFT);
+        ceiling = Math.min(Math.max(ceiling, 0), mMaxDelay);
+        return (ceiling > 0) ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    private boolean isRetryable(Throwable error) {
+        // Don't wait for an open circuit breaker
+        if (error instanceof CircuitBreakerOpenException) {
+            return false;
+        }
+
+        for (Class<? extends Throwable> type : mRetryableExceptions) {
+            if (type.isInstance(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long retryAfter(HttpHeaders headers) {
+        String value = (headers != null) ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+
+        if (value != null) {
+            value = value.trim();
+
+            // The value is either a number of seconds or a date
+            try {
+                return TimeUnit.SECONDS.toMillis(Math.max(Long.parseLong(value), 0));
+            }
+            catch (NumberFormatException ignore) {
+                // Do nothing
+            }
+
+            Date date = HttpDate.parse(value);
+            if (date != null) {
+                return Math.max(date.getTime() - System.currentTimeMillis(), 0);
+            }
+        }
+        return -1;
+    }
+
+// MARK: - Inner Types
+
+    public static final class Builder
+    {
+        public Builder() {
+            // Do nothing
+        }
+
+        public Builder(@NotNull DefaultRetryPolicy policy) {
+            Guard.notNull(policy, "policy is null");
+
+            // Init instance variables
+            mMaxAttempts = policy.mMaxAttempts;
+            mBaseDelay = policy.mBaseDelay;
+            mMaxDelay = policy.mMaxDelay;
+            mTimeBudget = policy.mTimeBudget;
+            mRetryableStatuses = EnumSet.copyOf(policy.mRetryableStatuses);
+            mRetryableExceptions = new HashSet<>(policy.mRetryableExceptions);
+        }
+
+        /**
+         * Sets the maximum number of attempts, including the first one.
+         */
+        public @NotNull Builder maxAttempts(int maxAttempts) {
+            Guard.isTrue(maxAttempts > 0, "maxAttempts <= 0");
+            mMaxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the upper bound in milliseconds of the delay before the second attempt.
+         */
+        public @NotNull Builder baseDelay(long baseDelay) {
+            Guard.isTrue(baseDelay >= 0, "baseDelay < 0");
+            mBaseDelay = baseDelay;
+            return this;
+        }
+
+        /**
+         * Sets the upper bound in milliseconds of the delay before any attempt.
+         */
+        public @NotNull Builder maxDelay(long maxDelay) {
+            Guard.isTrue(maxDelay >= 0, "maxDelay < 0");
+            mMaxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Sets the time in milliseconds after the first attempt within which the last attempt must be sent.
+         */
+        public @NotNull Builder timeBudget(long timeBudget) {
+            Guard.isTrue(timeBudget > 0, "timeBudget <= 0");
+            mTimeBudget = timeBudget;
+            return this;
+        }
+
+        /**
+         * Sets the response statuses to retry.
+         */
+        public @NotNull Builder retryableStatuses(@NotNull HttpStatus... statuses) {
+            Guard.notNull(statuses, "statuses is null");
+            mRetryableStatuses = EnumSet.noneOf(HttpStatus.class);
+            mRetryableStatuses.addAll(Arrays.asList(statuses));
+            return this;
+        }
+
+        /**
+         * Sets the exceptions to retry, including their subclasses.
+         */
+        public @NotNull Builder retryableExceptions(@NotNull Collection<Class<? extends Throwable>> types) {
+            Guard.notNull(types, "types is null");
+            mRetryableExceptions = new HashSet<>(types);
+            return this;
+        }
+
+        public @NotNull DefaultRetryPolicy build() {
+            return new DefaultRetryPolicy(this);
+        }
+
+        private int mMaxAttempts = 3;
+        private long mBaseDelay = 500;
+        private long mMaxDelay = 10 * 1000;
+        private long mTimeBudget = 30 * 1000;
+
+        private Set<HttpStatus> mRetryableStatuses = EnumSet.of(HttpStatus.REQUEST_TIMEOUT, HttpStatus.TOO_MANY_REQUESTS,
+                HttpStatus.BAD_GATEWAY, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.GATEWAY_TIMEOUT);
+        private Set<Class<? extends Throwable>> mRetryableExceptions = new HashSet<>(
+                Collections.<Class<? extends Throwable>>singletonList(IOException.class));
+    }
+
+// MARK: - Constants
+
+    private static final int MAX_BACKOFF_SHIFT = 30;
+
+// MARK: - Variables
+
+    private final int mMaxAttempts;
+
+    private final long mBaseDelay;
+
+    private final long mMaxDelay;
+
+    private final long mTimeBudget;
+
+    private final Set<HttpStatus> mRetryableStatuses;
+
+    private final Set<Class<? extends Throwable>> mRetryableExceptions;
+}
@@ -1,5 +1,9 @@
 package com.roxiemobile.networkingapi.network.rest.config;
 
+import com.roxiemobile.networkingapi.network.NetworkConfig;
+import com.roxiemobile.networkingapi.network.rest.CircuitBreakerRegistry;
+import com.roxiemobile.networkingapi.network.rest.HedgingPolicy;
+
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -63,4 +67,57 @@ public interface HttpClientConfig {
     default @Nullable X509TrustManager trustManager() {
         return null;
     }
+
+    /**
+     * The maximum number of idle connections to keep in the connection pool.
+     */
+    default int maxIdleConnections() {
+        return NetworkConfig.ConnectionPool.MAX_IDLE_CONNECTIONS;
+    }
+
+    /**
+     * The time in milliseconds to keep an idle connection alive in the connection pool.
+     */
+    default long keepAliveDuration() {
+        return NetworkConfig.ConnectionPool.KEEP_ALIVE_DURATION;
+    }
+
+    /**
+     * The maximum number of requests to execute concurrently.
+     */
+    default int maxRequests() {
+        return NetworkConfig.Dispatcher.MAX_REQUESTS;
+    }
+
+    /**
+     * The maximum number of requests for each host to execute concurrently.
+     */
+    default int maxRequestsPerHost() {
+        return NetworkConfig.Dispatcher.MAX_REQUESTS_PER_HOST;
+    }
+
+    /**
+     * The policy which decides whether a failed HTTP call is sent again.
+     * Enable retries for idempotent requests only.
+     */
+    default @NotNull RetryPolicy retryPolicy() {
+        return RetryPolicy.NONE;
+    }
+
+    /**
+     * The circuit breakers which fail fast the calls to the hosts which are down,
+     * or {@code null} to disable them. Disabled by default, return {@link CircuitBreakerRegistry#shared()}
+     * to enable them with the default thresholds.
+     */
+    default @Nullable CircuitBreakerRegistry circuitBreakers() {
+        return null;
+    }
+
+    /**
+     * The policy which sends a duplicate of a slow GET, HEAD or OPTIONS request,
+     * or {@code null} to disable hedging.
+     */
+    default @Nullable HedgingPolicy hedgingPolicy() {
+        return null;
+    }
 }
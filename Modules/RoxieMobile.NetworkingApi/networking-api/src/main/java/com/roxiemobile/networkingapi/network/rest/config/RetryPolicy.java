@@ -0,0 +1,31 @@
+package com.roxiemobile.networkingapi.network.rest.config;
+
+import com.roxiemobile.networkingapi.network.rest.HttpResult;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides whether and when a failed HTTP call is sent again.
+ */
+public interface RetryPolicy
+{
+// MARK: - Methods
+
+    /**
+     * Returns the delay in milliseconds before the next attempt, or {@link #NO_RETRY} if the result is final.
+     *
+     * @param result      The result of the last attempt.
+     * @param attempt     The number of the last attempt, starting with 1.
+     * @param elapsedTime The time in milliseconds passed since the first attempt was sent.
+     */
+    long retryDelay(@NotNull HttpResult result, int attempt, long elapsedTime);
+
+// MARK: - Constants
+
+    long NO_RETRY = -1;
+
+    /**
+     * The policy which never sends a call again.
+     */
+    RetryPolicy NONE = (result, attempt, elapsedTime) -> NO_RETRY;
+}
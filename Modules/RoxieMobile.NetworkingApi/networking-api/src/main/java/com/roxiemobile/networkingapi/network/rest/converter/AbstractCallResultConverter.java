@@ -11,6 +11,7 @@ import com.roxiemobile.networkingapi.network.rest.response.error.nested.Conversi
 import com.roxiemobile.networkingapi.network.rest.response.error.nested.UnexpectedMediaTypeException;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AbstractCallResultConverter<T> implements CallResultConverter<byte[], T>
 {
@@ -55,21 +56,23 @@ public abstract class AbstractCallResultConverter<T> implements CallResultConver
     private void checkMediaType(@NotNull ResponseEntity<byte[]> entity) throws UnexpectedMediaTypeException {
         Guard.notNull(entity, "entity is null");
 
-        MediaType mediaType = entity.mediaType();
+        // Throw exception if on MediaType found
+        if (!isCompatible(entity.mediaType(), supportedMediaTypes())) {
+            throw new UnexpectedMediaTypeException(entity);
+        }
+    }
+
+    static boolean isCompatible(@Nullable MediaType mediaType, @NotNull MediaType[] supportedMediaTypes) {
         boolean found = false;
 
         // Search for compatible MediaType
         if (mediaType != null) {
-            for (MediaType type : supportedMediaTypes()) {
+            for (MediaType type : supportedMediaTypes) {
                 if (found = mediaType.isCompatibleWith(type)) {
                     break;
                 }
             }
         }
-
-        // Throw exception if on MediaType found
-        if (!found) {
-            throw new UnexpectedMediaTypeException(entity);
-        }
+        return found;
     }
 }
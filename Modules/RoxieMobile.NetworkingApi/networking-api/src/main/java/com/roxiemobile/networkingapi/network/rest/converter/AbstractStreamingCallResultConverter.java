@@ -0,0 +1,101 @@
+package com.roxiemobile.networkingapi.network.rest.converter;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.networkingapi.network.http.MediaType;
+import com.roxiemobile.networkingapi.network.rest.CallResult;
+import com.roxiemobile.networkingapi.network.rest.CallResultConverter;
+import com.roxiemobile.networkingapi.network.rest.response.BasicResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.RestApiError;
+import com.roxiemobile.networkingapi.network.rest.response.error.ApplicationLayerError;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConversionException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.UnexpectedMediaTypeException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Converts the response body while it is read from the connection, without buffering it in memory.
+ * <p>
+ * {@link #convert(CallResult)} closes the body stream once the conversion is done. A caller of
+ * {@link #convert(ResponseEntity)} must close it on its own.
+ */
+public abstract class AbstractStreamingCallResultConverter<T> implements CallResultConverter<InputStream, T>
+{
+// MARK: - Methods
+
+    public @NotNull CallResult<T> convert(@NotNull CallResult<InputStream> result) {
+        CallResult<T> newResult;
+
+        // Handle call result
+        if (result.isSuccess()) {
+            ResponseEntity<InputStream> entity = result.value();
+
+            try {
+                checkMediaType(entity);
+
+                // Convert response entity
+                ResponseEntity<T> response = convert(entity);
+                newResult = CallResult.success(response);
+            }
+            catch (UnexpectedMediaTypeException | ConversionException ex) {
+
+                // Build new error with caught exception
+                RestApiError error = new ApplicationLayerError(ex);
+                newResult = CallResult.failure(error);
+            }
+            finally {
+                // Release the connection, whether or not the body was read to the end
+                close(entity.body());
+            }
+        }
+        else {
+            // Copy an original error
+            newResult = CallResult.failure(result.error());
+        }
+
+        // Done
+        return newResult;
+    }
+
+    public abstract @NotNull ResponseEntity<T> convert(@NotNull ResponseEntity<InputStream> entity)
+            throws ConversionException;
+
+    protected abstract @NotNull MediaType[] supportedMediaTypes();
+
+    /**
+     * Returns a copy of the entity without its body, for the errors which hold the response entity.
+     */
+    protected static @NotNull ResponseEntity<byte[]> withoutBody(@NotNull ResponseEntity<InputStream> entity) {
+        return new BasicResponseEntity.Builder<byte[]>(entity, null).build();
+    }
+
+// MARK: - Private Methods
+
+    private void checkMediaType(@NotNull ResponseEntity<InputStream> entity) throws UnexpectedMediaTypeException {
+        Guard.notNull(entity, "entity is null");
+
+        // Throw exception if on MediaType found
+        if (!AbstractCallResultConverter.isCompatible(entity.mediaType(), supportedMediaTypes())) {
+            throw new UnexpectedMediaTypeException(withoutBody(entity));
+        }
+    }
+
+    private static void close(InputStream stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            }
+            catch (IOException ex) {
+                Logger.w(TAG, ex);
+            }
+        }
+    }
+
+// MARK: - Constants
+
+    private static final String TAG = AbstractStreamingCallResultConverter.class.getSimpleName();
+}
@@ -0,0 +1,52 @@
+package com.roxiemobile.networkingapi.network.rest.converter;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.networkingapi.network.http.MediaType;
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConversionException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.UnexpectedMediaTypeException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.InputStream;
+
+/**
+ * Converts the response body into a sequence of items, e.g. the elements of a JSON array, which are read
+ * one at a time while the body arrives, so that neither the body nor the whole sequence is held in memory.
+ * <p>
+ * The caller of {@link #open(ResponseEntity)} must close the body once it is done with the items.
+ */
+public abstract class AbstractStreamingItemConverter<T>
+{
+// MARK: - Methods
+
+    /**
+     * Returns a reader of the items of the response body.
+     */
+    public final @NotNull ItemReader<T> open(@NotNull ResponseEntity<InputStream> entity)
+            throws UnexpectedMediaTypeException, ConversionException {
+        Guard.notNull(entity, "entity is null");
+
+        // Throw exception if on MediaType found
+        if (!AbstractCallResultConverter.isCompatible(entity.mediaType(), supportedMediaTypes())) {
+            throw new UnexpectedMediaTypeException(AbstractStreamingCallResultConverter.withoutBody(entity));
+        }
+        return newReader(entity);
+    }
+
+    protected abstract @NotNull ItemReader<T> newReader(@NotNull ResponseEntity<InputStream> entity)
+            throws ConversionException;
+
+    protected abstract @NotNull MediaType[] supportedMediaTypes();
+
+// MARK: - Inner Types
+
+    public interface ItemReader<T>
+    {
+        /**
+         * Reads the next item from the body, or returns {@code null} once all the items are read.
+         */
+        @Nullable T read() throws ConversionException;
+    }
+}
@@ -0,0 +1,83 @@
+package com.roxiemobile.networkingapi.network.rest.converter;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.roxiemobile.androidcommons.data.Constants.Charsets;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.networkingapi.network.http.MediaType;
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConversionException;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * Reads the elements of the JSON array in the response body one at a time.
+ */
+public abstract class AbstractStreamingJsonArrayItemConverter<T> extends AbstractStreamingItemConverter<T>
+{
+// MARK: - Methods
+
+    @Override
+    protected @NotNull ItemReader<T> newReader(@NotNull ResponseEntity<InputStream> entity) throws ConversionException {
+        InputStream body = entity.body();
+
+        // No body, no items
+        if (body == null) {
+            return () -> null;
+        }
+
+        JsonReader reader = new JsonReader(new InputStreamReader(body, entity.mediaType().getCharset(Charsets.UTF_8)));
+        try {
+            reader.beginArray();
+        }
+        catch (IOException | IllegalStateException ex) {
+            Logger.e(TAG, ex);
+            throw new ConversionException(AbstractStreamingCallResultConverter.withoutBody(entity), ex);
+        }
+
+        return () -> {
+            T item;
+
+            try {
+                // Stop at the end of the array
+                if (!reader.hasNext()) {
+                    return null;
+                }
+                item = convertItem(JsonParser.parseReader(reader));
+            }
+            catch (JsonSyntaxException | JsonIOException | IOException | IllegalStateException ex) {
+                Logger.e(TAG, ex);
+                throw new ConversionException(AbstractStreamingCallResultConverter.withoutBody(entity), ex);
+            }
+
+            // A null item would be taken for the end of the array
+            if (item == null) {
+                throw new ConversionException(AbstractStreamingCallResultConverter.withoutBody(entity));
+            }
+            return item;
+        };
+    }
+
+    protected abstract @Nullable T convertItem(@NotNull JsonElement json);
+
+    @Override
+    protected @NotNull MediaType[] supportedMediaTypes() {
+        return SUPPORTED_MEDIA_TYPES;
+    }
+
+// MARK: - Constants
+
+    public static final String TAG = AbstractStreamingJsonArrayItemConverter.class.getSimpleName();
+
+    private static final MediaType[] SUPPORTED_MEDIA_TYPES = new MediaType[]{
+            MediaType.APPLICATION_JSON,
+    };
+}
@@ -0,0 +1,60 @@
+package com.roxiemobile.networkingapi.network.rest.converter;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.roxiemobile.androidcommons.data.Constants.Charsets;
+import com.roxiemobile.androidcommons.data.mapper.DataMapper;
+import com.roxiemobile.androidcommons.data.model.ValidatableModel;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.networkingapi.network.rest.response.BasicResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConversionException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+public abstract class AbstractStreamingValidatableModelConverter<T extends ValidatableModel>
+        extends AbstractStreamingCallResultConverter<T>
+{
+// MARK: - Construction
+
+    protected AbstractStreamingValidatableModelConverter(@NotNull Class<T> classOfT) {
+        mClassOfType = classOfT;
+    }
+
+// MARK: - Methods
+
+    @Override
+    public @NotNull ResponseEntity<T> convert(@NotNull ResponseEntity<InputStream> entity) throws ConversionException {
+        ResponseEntity<T> newEntity;
+        T newBody = null;
+
+        try {
+            InputStream body = entity.body();
+
+            // Try to convert HTTP response to POJO while it is read
+            if (body != null) {
+                InputStreamReader reader = new InputStreamReader(body, entity.mediaType().getCharset(Charsets.UTF_8));
+                newBody = DataMapper.fromJson(reader, mClassOfType);
+            }
+        }
+        catch (JsonSyntaxException | JsonIOException ex) {
+            Logger.e(TAG, ex);
+            throw new ConversionException(withoutBody(entity), ex);
+        }
+
+        // Create new response entity
+        newEntity = new BasicResponseEntity.Builder<>(entity, newBody).build();
+        return newEntity;
+    }
+
+// MARK: - Constants
+
+    public static final String TAG = AbstractStreamingValidatableModelConverter.class.getSimpleName();
+
+// MARK: - Variables
+
+    private final Class<T> mClassOfType;
+}
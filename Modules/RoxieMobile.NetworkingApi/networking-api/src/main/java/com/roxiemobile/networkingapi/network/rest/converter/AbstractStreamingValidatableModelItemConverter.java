@@ -0,0 +1,29 @@
+package com.roxiemobile.networkingapi.network.rest.converter;
+
+import com.google.gson.JsonElement;
+import com.roxiemobile.androidcommons.data.mapper.DataMapper;
+import com.roxiemobile.androidcommons.data.model.ValidatableModel;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public abstract class AbstractStreamingValidatableModelItemConverter<T extends ValidatableModel>
+        extends AbstractStreamingJsonArrayItemConverter<T>
+{
+// MARK: - Construction
+
+    protected AbstractStreamingValidatableModelItemConverter(@NotNull Class<T> classOfT) {
+        mClassOfType = classOfT;
+    }
+
+// MARK: - Methods
+
+    @Override
+    protected @Nullable T convertItem(@NotNull JsonElement json) {
+        return DataMapper.fromJson(json, mClassOfType);
+    }
+
+// MARK: - Variables
+
+    private final Class<T> mClassOfType;
+}
@@ -0,0 +1,64 @@
+package com.roxiemobile.networkingapi.network.rest.converter;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.roxiemobile.androidcommons.data.Constants.Charsets;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.networkingapi.network.http.MediaType;
+import com.roxiemobile.networkingapi.network.rest.response.BasicResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConversionException;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+public class StreamingJsonObjectConverter extends AbstractStreamingCallResultConverter<JsonObject>
+{
+// MARK: - Methods
+
+    @Override
+    public @NotNull ResponseEntity<JsonObject> convert(@NotNull ResponseEntity<InputStream> entity) throws ConversionException {
+        ResponseEntity<JsonObject> newEntity;
+        JsonObject newBody = null;
+
+        try {
+            InputStream body = entity.body();
+
+            // Try to convert HTTP response to JSON object while it is read
+            if (body != null) {
+                InputStreamReader reader = new InputStreamReader(body, entity.mediaType().getCharset(Charsets.UTF_8));
+                JsonElement json = JsonParser.parseReader(reader);
+
+                if (!json.isJsonNull()) {
+                    newBody = json.getAsJsonObject();
+                }
+            }
+        }
+        catch (JsonSyntaxException | JsonIOException | IllegalStateException ex) {
+            Logger.e(TAG, ex);
+            throw new ConversionException(withoutBody(entity), ex);
+        }
+
+        // Create new response entity
+        newEntity = new BasicResponseEntity.Builder<>(entity, newBody).build();
+        return newEntity;
+    }
+
+    @Override
+    protected @NotNull MediaType[] supportedMediaTypes() {
+        return SUPPORTED_MEDIA_TYPES;
+    }
+
+// MARK: - Constants
+
+    public static final String TAG = StreamingJsonObjectConverter.class.getSimpleName();
+
+    private static final MediaType[] SUPPORTED_MEDIA_TYPES = new MediaType[]{
+            MediaType.APPLICATION_JSON,
+    };
+}
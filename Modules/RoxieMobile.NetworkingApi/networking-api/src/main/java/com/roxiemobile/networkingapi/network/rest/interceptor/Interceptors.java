@@ -22,7 +22,11 @@ public final class Interceptors
         return logging;
     }
 
+    /**
+     * Logs the bodies which can be read without side effects, and the headers only of the one-shot,
+     * large or streamed bodies.
+     */
     public static Interceptor newHttpLoggingInterceptor() {
-        return newHttpLoggingInterceptor(Level.BODY);
+        return new SafeHttpLoggingInterceptor();
     }
 }
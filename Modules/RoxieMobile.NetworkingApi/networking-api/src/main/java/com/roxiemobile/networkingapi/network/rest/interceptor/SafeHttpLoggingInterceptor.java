@@ -0,0 +1,73 @@
+package com.roxiemobile.networkingapi.network.rest.interceptor;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.internal.http.UnrepeatableRequestBody;
+import okhttp3.logging.HttpLoggingInterceptor;
+import okhttp3.logging.HttpLoggingInterceptor.Level;
+
+/**
+ * This interceptor logs the request and response lines and their respective headers, and the bodies
+ * only when they can be read without side effects. A one-shot request body would be consumed before it is sent,
+ * and a request body of unknown or large length, or a response body streamed to the caller, would be buffered
+ * in memory as a whole.
+ */
+public final class SafeHttpLoggingInterceptor implements Interceptor
+{
+// MARK: - Construction
+
+    public SafeHttpLoggingInterceptor() {
+        // Init instance variables
+        mBodyLogging = new HttpLoggingInterceptor().setLevel(Level.BODY);
+        mHeadersLogging = new HttpLoggingInterceptor().setLevel(Level.HEADERS);
+    }
+
+// MARK: - Methods
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Interceptor logging = isBodyLoggable(chain.request()) ? mBodyLogging : mHeadersLogging;
+        return logging.intercept(chain);
+    }
+
+// MARK: - Private Methods
+
+    private static boolean isBodyLoggable(@NotNull Request request) throws IOException {
+        RequestBody body = request.body();
+
+        // The caller reads the response body as it arrives
+        if (request.tag(StreamedResponse.class) != null) {
+            return false;
+        }
+
+        // The request body is written to a buffer before it is sent
+        return body == null || (!(body instanceof UnrepeatableRequestBody)
+                && body.contentLength() >= 0 && body.contentLength() <= MAX_LOGGED_BODY_SIZE);
+    }
+
+// MARK: - Inner Types
+
+    /**
+     * The tag of a request whose response body is handed over to the caller as a stream,
+     * so that it must not be read by the interceptor.
+     */
+    public enum StreamedResponse
+    {
+        INSTANCE
+    }
+
+// MARK: - Constants
+
+    private static final long MAX_LOGGED_BODY_SIZE = 64 * 1024;
+
+// MARK: - Variables
+
+    private final Interceptor mBodyLogging;
+    private final Interceptor mHeadersLogging;
+}
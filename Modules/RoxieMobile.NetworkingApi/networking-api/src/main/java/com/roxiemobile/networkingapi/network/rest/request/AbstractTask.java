@@ -1,32 +1,56 @@
 package com.roxiemobile.networkingapi.network.rest.request;
 
+import com.annimon.stream.function.Consumer;
+import com.roxiemobile.androidcommons.concurrent.ParallelWorkerThreadExecutor;
 import com.roxiemobile.androidcommons.concurrent.ThreadUtils;
 import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.androidcommons.logging.Logger;
+import com.roxiemobile.networkingapi.network.HttpKeys.MethodName;
 import com.roxiemobile.networkingapi.network.http.HttpHeaders;
 import com.roxiemobile.networkingapi.network.http.HttpStatus;
+import com.roxiemobile.networkingapi.network.rest.Call;
 import com.roxiemobile.networkingapi.network.rest.CallResult;
 import com.roxiemobile.networkingapi.network.rest.Callback;
 import com.roxiemobile.networkingapi.network.rest.Cancellable;
 import com.roxiemobile.networkingapi.network.rest.HttpBody;
 import com.roxiemobile.networkingapi.network.rest.HttpResult;
+import com.roxiemobile.networkingapi.network.rest.HttpResultCallback;
 import com.roxiemobile.networkingapi.network.rest.RestApiClient;
+import com.roxiemobile.networkingapi.network.rest.StreamingHttpBody;
+import com.roxiemobile.networkingapi.network.rest.StreamingHttpResult;
 import com.roxiemobile.networkingapi.network.rest.Task;
+import com.roxiemobile.networkingapi.network.rest.TaskPriority;
 import com.roxiemobile.networkingapi.network.rest.TaskQueue;
 import com.roxiemobile.networkingapi.network.rest.config.DefaultHttpClientConfig;
 import com.roxiemobile.networkingapi.network.rest.config.HttpClientConfig;
+import com.roxiemobile.networkingapi.network.rest.config.RetryPolicy;
+import com.roxiemobile.networkingapi.network.rest.converter.AbstractStreamingItemConverter;
+import com.roxiemobile.networkingapi.network.rest.response.BasicResponseEntity;
 import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity;
 import com.roxiemobile.networkingapi.network.rest.response.RestApiError;
 import com.roxiemobile.networkingapi.network.rest.response.error.ApplicationLayerError;
+import com.roxiemobile.networkingapi.network.rest.response.error.RestApiErrorException;
 import com.roxiemobile.networkingapi.network.rest.response.error.TransportLayerError;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.CircuitBreakerOpenException;
 import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConnectionException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.DeadlineExceededException;
 import com.roxiemobile.networkingapi.network.rest.response.error.nested.ResponseException;
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.StaleTaskException;
 import com.roxiemobile.networkingapi.network.rest.routing.HttpRoute;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 @SuppressWarnings("unused")
 public abstract class AbstractTask<Ti extends HttpBody, To>
@@ -40,6 +64,13 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
         // Init instance variables
         mTag = builder.tag();
         mRequestEntity = builder.requestEntity();
+        mCoalescing = builder.coalescing();
+        mPriority = builder.priority();
+        mDeadline = builder.deadline();
+        mMaxQueueAge = builder.maxQueueAge();
+
+        // The clock of the deadline starts with the task, and TaskQueue runs a clone of the task made on enqueue
+        mDeadlineTime = (mDeadline > 0) ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(mDeadline) : 0;
     }
 
 // MARK: - Properties
@@ -58,6 +89,38 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
         return mRequestEntity;
     }
 
+    /**
+     * Whether the task may share a single HTTP call with identical tasks in flight.
+     * It takes effect for the GET, HEAD and OPTIONS requests only.
+     */
+    public final boolean coalescing() {
+        return mCoalescing;
+    }
+
+    /**
+     * The priority class of the task in {@link TaskQueue}.
+     */
+    public final @NotNull TaskPriority priority() {
+        return mPriority;
+    }
+
+    /**
+     * The time in milliseconds within which the task must complete, including the time spent in the queue,
+     * or 0 if the task has no deadline. The time is counted from the creation of the task,
+     * or from its enqueueing in {@link TaskQueue}.
+     */
+    public final long deadline() {
+        return mDeadline;
+    }
+
+    /**
+     * The maximum time in milliseconds the task may wait in {@link TaskQueue} before it is shed,
+     * or 0 if the task may wait for any time.
+     */
+    public final long maxQueueAge() {
+        return mMaxQueueAge;
+    }
+
 // MARK: - Methods
 
     /**
@@ -90,73 +153,187 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
         }
     }
 
+    /**
+     * Asynchronously send the request and notify the callback when its response arrives.
+     */
+    @Override
+    public final void executeAsync(Callback<Ti, To> callback) {
+        executeAsync(callback, null);
+    }
+
+    /**
+     * Asynchronously send the request and notify the callback when its response arrives.
+     * The response is converted on the given executor, or on the thread which received it if the executor is {@code null}.
+     */
+    @Override
+    public final void executeAsync(Callback<Ti, To> callback, @Nullable Executor conversionExecutor) {
+        executeAsync(callback, conversionExecutor, ParallelWorkerThreadExecutor.shared());
+    }
+
+    /**
+     * Asynchronously send the request and notify the callback when its response arrives.
+     * The response is converted on the given executor, or on the thread which received it if the executor is {@code null}.
+     * The retried requests are sent on the retry executor.
+     */
+    @Override
+    public final void executeAsync(Callback<Ti, To> callback, @Nullable Executor conversionExecutor, @NotNull Executor retryExecutor) {
+        Guard.notNull(retryExecutor, "retryExecutor is null");
+        boolean shouldExecute = true;
+
+        try {
+
+            // Check if task must be executed
+            if (callback != null) {
+                shouldExecute = callback.onShouldExecute(this);
+            }
+
+            // Send request to the server
+            if (shouldExecute) {
+                enqueueAttempt(httpResult -> {
+                    if (conversionExecutor != null) {
+                        conversionExecutor.execute(() -> onHttpResult(httpResult, callback));
+                    }
+                    else {
+                        onHttpResult(httpResult, callback);
+                    }
+                }, ex -> {
+                    // Yielding error to listener
+                    if (callback != null) {
+                        yield(CallResult.failure(new ApplicationLayerError(ex)), callback);
+                    }
+                }, retryExecutor, httpClientConfig().retryPolicy(), 1, System.nanoTime());
+            }
+        }
+        catch (Throwable ex) {
+
+            // Yielding error to listener
+            if (callback != null && shouldExecute) {
+                yield(CallResult.failure(new ApplicationLayerError(ex)), callback);
+            }
+        }
+    }
+
     /**
      * TODO
      */
     @Override
     public final Cancellable enqueue(Callback<Ti, To> callback, boolean callbackOnUiThread) {
-        return TaskQueue.enqueue(this, callback, callbackOnUiThread);
+        return TaskQueue.shared().submit(this, callback, callbackOnUiThread);
     }
 
     /**
-     * Performs the request and returns the response, or throws an exception if unable to do so.
-     * May return null if this call was canceled.
+     * Sends {@link #httpRequestEntity()} with {@link #httpMethod()} and returns its response without reading the body,
+     * e.g. for an {@link AbstractStreamingItemConverter}. The body must be closed once it is read. Cancelling the task
+     * fails a read in progress at once. The retry policy is not applied, since the body is read by the caller.
+     *
+     * @throws RestApiErrorException if the request fails or the response status is not 2xx.
      */
-    protected final CallResult<To> call() throws Exception {
+    public final @NotNull ResponseEntity<InputStream> executeStreaming() throws RestApiErrorException {
         Guard.isFalse(ThreadUtils.runningOnUiThread(), "This method must not be called from the main thread!");
-        CallResult<To> result = null;
+
+        String method = httpMethod();
+        Guard.notNull(method, "httpMethod is null");
 
         // Send request to the server
-        HttpResult httpResult = callExecute();
-        RestApiError error = null;
+        StreamingHttpResult result = newClient().executeStreaming(method, httpRequestEntity());
+        if (!result.isSuccess()) {
+            throw new RestApiErrorException(newTransportLayerError(result.error()));
+        }
 
-        // Are HTTP response is still needed?
-        if (!isCancelled()) {
+        ResponseEntity<InputStream> entity = result.value();
+        if (!entity.status().is2xxSuccessful()) {
 
-            // Handle HTTP response
-            if (httpResult.isSuccess()) {
+            // Release the connection, the errors hold the response entity without its body
+            close(entity.body());
+            ResponseEntity<byte[]> newEntity = new BasicResponseEntity.Builder<byte[]>(entity, null).build();
+            throw new RestApiErrorException(new ApplicationLayerError(new ResponseException(newEntity)));
+        }
+        return entity;
+    }
 
-                ResponseEntity<byte[]> entity = httpResult.value();
-                HttpStatus status = entity.status();
+    /**
+     * Performs the request and returns the response, or throws an exception if unable to do so.
+     * May return null if this call was canceled.
+     * <p>
+     * The retries are scheduled on a timer and sent on the shared worker threads, the same way as by
+     * {@link #executeAsync(Callback)}, so no thread waits out the retry delays. The calling thread blocks
+     * once until the final response arrives.
+     */
+    protected final CallResult<To> call() throws Exception {
+        Guard.isFalse(ThreadUtils.runningOnUiThread(), "This method must not be called from the main thread!");
 
-                // Create a new call result
-                if (status.is2xxSuccessful()) {
-                    result = onSuccess(CallResult.success(entity));
-                }
-                else {
-                    ResponseException cause = new ResponseException(entity);
-                    // Build application layer error
-                    error = new ApplicationLayerError(cause);
-                }
-            }
-            else {
-                Throwable cause = httpResult.error();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<HttpResult> httpResult = new AtomicReference<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
 
-                // Wrap up HTTP connection error
-                if (cause instanceof IOException) {
-                    cause = new ConnectionException(cause);
-                }
+        // Send request to the server, and again while the retry policy asks for it
+        enqueueAttempt(result -> {
+            httpResult.set(result);
+            latch.countDown();
+        }, ex -> {
+            error.set(ex);
+            latch.countDown();
+        }, ParallelWorkerThreadExecutor.shared(), httpClientConfig().retryPolicy(), 1, System.nanoTime());
 
-                // Build transport layer error
-                error = new TransportLayerError(cause);
-            }
+        try {
+            latch.await();
+        }
+        catch (InterruptedException ex) {
+            cancel();
+            throw ex;
+        }
 
-            // Handle error
-            if (error != null) {
-                result = onFailure(error);
-            }
+        // Rethrow the error of a retried request
+        if (error.get() != null) {
+            throw (error.get() instanceof Exception) ? (Exception) error.get() : new RuntimeException(error.get());
         }
-        else {
+        return newCallResult(httpResult.get());
+    }
 
-            // Handle request cancellation
-            onCancel();
+    /**
+     * Sends the request and returns its response. The default implementation sends {@link #httpRequestEntity()}
+     * with {@link #httpMethod()}, override it if the task sends its request in another way.
+     */
+    protected HttpResult callExecute() {
+        String method = httpMethod();
+        Guard.notNull(method, "httpMethod is null");
+        return newClient().execute(method, httpRequestEntity());
+    }
+
+    /**
+     * Sends the request asynchronously and notifies the callback when its response arrives.
+     * The default implementation sends {@link #httpRequestEntity()} with {@link #httpMethod()} by the non-blocking
+     * methods of {@link RestApiClient}, so no thread is held while the response is pending. If the task has
+     * no HTTP method, it calls {@link #callExecute()} on the current thread instead.
+     */
+    protected @NotNull Cancellable callEnqueue(@NotNull HttpResultCallback callback) {
+        String method = httpMethod();
+
+        if (method == null) {
+            Guard.isFalse(ThreadUtils.runningOnUiThread(), "This method must not be called from the main thread!");
+            callback.onResult(callExecute());
+            return NOT_CANCELLABLE;
         }
+        return newClient().enqueue(method, httpRequestEntity(), callback);
+    }
 
-        // Done
-        return result;
+    /**
+     * The HTTP method of the request, e.g. {@link MethodName#GET}, or {@code null} if the task sends its request
+     * in {@link #callExecute()} only.
+     */
+    @Override
+    public @Nullable String httpMethod() {
+        return null;
     }
 
-    protected abstract HttpResult callExecute();
+    /**
+     * The request entity sent by {@link #callExecute()} and {@link #callEnqueue(HttpResultCallback)}.
+     */
+    protected @NotNull RequestEntity<HttpBody> httpRequestEntity() {
+        return new BasicRequestEntity.Builder<>(requestEntity(), httpBody())
+                .headers(httpHeaders())
+                .build();
+    }
 
     /**
      * TODO
@@ -184,7 +361,23 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
                 // Set the socket factory used to create connections
                 .sslSocketFactory(config.sslSocketFactory())
                 // Set the trust manager used to secure HTTPS connections
-                .trustManager(config.trustManager());
+                .trustManager(config.trustManager())
+                // Set the maximum number of idle connections to keep in the pool
+                .maxIdleConnections(config.maxIdleConnections())
+                // Set the time to keep an idle connection alive in the pool
+                .keepAliveDuration(config.keepAliveDuration())
+                // Set the maximum number of requests to execute concurrently
+                .maxRequests(config.maxRequests())
+                // Set the maximum number of requests for each host to execute concurrently
+                .maxRequestsPerHost(config.maxRequestsPerHost())
+                // Set the circuit breakers which fail fast the calls to the hosts which are down
+                .circuitBreakers(config.circuitBreakers())
+                // Set the policy which sends a duplicate of a slow idempotent request
+                .hedgingPolicy(config.hedgingPolicy())
+                // Set the time by which the call must complete
+                .deadline(mDeadlineTime)
+                // Cancel the blocking call in progress when the task is cancelled
+                .callListener(this::onCallStart);
 
         // Done
         return builder.build();
@@ -260,7 +453,17 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
      * TODO
      */
     public final boolean cancel() {
-        return !mCancelled.getAndSet(true);
+        boolean result = !mCancelled.getAndSet(true);
+
+        // Cancel the HTTP call in progress
+        if (result) {
+            Cancellable httpCall = mHttpCall.get();
+
+            if (httpCall != null) {
+                httpCall.cancel();
+            }
+        }
+        return result;
     }
 
     /**
@@ -272,6 +475,184 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
 
 // MARK: - Private Methods
 
+    /**
+     * Converts the HTTP result to the call result.
+     * May return null if this call was canceled.
+     */
+    private CallResult<To> newCallResult(@NotNull HttpResult httpResult) {
+        CallResult<To> result = null;
+        RestApiError error = null;
+
+        // Are HTTP response is still needed?
+        if (!isCancelled()) {
+
+            // Handle HTTP response
+            if (httpResult.isSuccess()) {
+
+                ResponseEntity<byte[]> entity = httpResult.value();
+                HttpStatus status = entity.status();
+
+                // Create a new call result
+                if (status.is2xxSuccessful()) {
+                    result = onSuccess(CallResult.success(entity));
+
+                    // The conversion of the response must complete by the deadline too
+                    if (isDeadlineExceeded()) {
+                        error = new TransportLayerError(new DeadlineExceededException());
+                    }
+                }
+                else {
+                    ResponseException cause = new ResponseException(entity);
+                    // Build application layer error
+                    error = new ApplicationLayerError(cause);
+                }
+            }
+            else {
+                error = newTransportLayerError(httpResult.error());
+            }
+
+            // Handle error
+            if (error != null) {
+                result = onFailure(error);
+            }
+        }
+        else {
+
+            // Handle request cancellation
+            onCancel();
+        }
+
+        // Done
+        return result;
+    }
+
+    private static @NotNull RestApiError newTransportLayerError(@NotNull Throwable cause) {
+
+        // Wrap up HTTP connection error
+        if (cause instanceof IOException && !(cause instanceof CircuitBreakerOpenException)
+                && !(cause instanceof DeadlineExceededException)) {
+            cause = new ConnectionException(cause);
+        }
+
+        // Build transport layer error
+        return new TransportLayerError(cause);
+    }
+
+    private static void close(@Nullable InputStream stream) {
+        if (stream != null) {
+            try {
+                stream.close();
+            }
+            catch (IOException ex) {
+                Logger.w(TAG, ex);
+            }
+        }
+    }
+
+    private void onCallStart(@NotNull Cancellable httpCall) {
+        mHttpCall.set(httpCall);
+
+        // Cancel HTTP call if task was cancelled in the meantime
+        if (isCancelled()) {
+            httpCall.cancel();
+        }
+    }
+
+    /**
+     * Sends the request, and again while the retry policy asks for it, and passes the final result to the callback,
+     * or the error thrown while sending a retried request to the error callback.
+     */
+    private void enqueueAttempt(@NotNull HttpResultCallback callback, @NotNull Consumer<Throwable> errorCallback,
+            @NotNull Executor retryExecutor, @NotNull RetryPolicy retryPolicy, int attempt, long startTime) {
+        Cancellable previousCall = mHttpCall.get();
+
+        Cancellable httpCall = callEnqueue(httpResult -> {
+            long delay = retryDelay(retryPolicy, httpResult, attempt, startTime);
+
+            // Reschedule the request on the timer, without holding a worker thread while waiting
+            if (delay != RetryPolicy.NO_RETRY) {
+                scheduleAttempt(callback, errorCallback, retryExecutor, retryPolicy, attempt + 1, startTime, delay);
+            }
+            else {
+                callback.onResult(httpResult);
+            }
+        });
+
+        // The call may have completed and registered the cancellable of its retry in the meantime
+        if (mHttpCall.compareAndSet(previousCall, httpCall) && isCancelled()) {
+            httpCall.cancel();
+        }
+    }
+
+    private void scheduleAttempt(@NotNull HttpResultCallback callback, @NotNull Consumer<Throwable> errorCallback,
+            @NotNull Executor retryExecutor, @NotNull RetryPolicy retryPolicy, int attempt, long startTime, long delay) {
+        final AtomicBoolean done = new AtomicBoolean(false);
+
+        ScheduledFuture<?> future = RETRY_TIMER.schedule(() -> retryExecutor.execute(() -> {
+            if (!done.getAndSet(true)) {
+                try {
+                    enqueueAttempt(callback, errorCallback, retryExecutor, retryPolicy, attempt, startTime);
+                }
+                catch (Throwable ex) {
+                    errorCallback.accept(ex);
+                }
+            }
+        }), delay, TimeUnit.MILLISECONDS);
+
+        // Deliver the cancellation if the task is cancelled while waiting
+        Cancellable httpCall = () -> {
+            boolean result = !done.getAndSet(true);
+
+            if (result) {
+                future.cancel(false);
+                callback.onResult(HttpResult.failure(new IOException("Canceled")));
+            }
+            return result;
+        };
+        onCallStart(httpCall);
+    }
+
+    private long retryDelay(@NotNull RetryPolicy retryPolicy, @NotNull HttpResult httpResult, int attempt, long startTime) {
+        if (isCancelled()) {
+            return RetryPolicy.NO_RETRY;
+        }
+
+        // The body which can be written once only may have been sent already
+        HttpBody body = httpBody();
+        if (body instanceof StreamingHttpBody && !((StreamingHttpBody) body).isReplayable()) {
+            return RetryPolicy.NO_RETRY;
+        }
+
+        long now = System.nanoTime();
+        long delay = retryPolicy.retryDelay(httpResult, attempt, TimeUnit.NANOSECONDS.toMillis(now - startTime));
+
+        // Don't retry the request if the deadline expires in the meantime
+        if (delay != RetryPolicy.NO_RETRY && mDeadlineTime != 0 && now + TimeUnit.MILLISECONDS.toNanos(delay) - mDeadlineTime >= 0) {
+            delay = RetryPolicy.NO_RETRY;
+        }
+        return delay;
+    }
+
+    private boolean isDeadlineExceeded() {
+        return mDeadlineTime != 0 && System.nanoTime() - mDeadlineTime >= 0;
+    }
+
+    private void onHttpResult(@NotNull HttpResult httpResult, Callback<Ti, To> callback) {
+        CallResult<To> result;
+
+        try {
+            result = newCallResult(httpResult);
+        }
+        catch (Throwable ex) {
+            result = CallResult.failure(new ApplicationLayerError(ex));
+        }
+
+        // Yielding result to listener
+        if (callback != null) {
+            yield(result, callback);
+        }
+    }
+
     private void yield(CallResult<To> result, @NotNull Callback<Ti, To> callback) {
         Guard.notNull(callback, "callback is null");
 
@@ -306,6 +687,10 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
             // Init instance variables
             mTag = task.tag();
             mRequestEntity = task.requestEntity();
+            mCoalescing = task.coalescing();
+            mPriority = task.priority();
+            mDeadline = task.deadline();
+            mMaxQueueAge = task.maxQueueAge();
         }
 
         public String tag() {
@@ -328,6 +713,66 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
             return (BuilderType) this;
         }
 
+        public boolean coalescing() {
+            return mCoalescing;
+        }
+
+        /**
+         * Allows the task to share a single HTTP call and its converted response with identical
+         * tasks in flight. It takes effect for the GET, HEAD and OPTIONS requests only, so the tasks
+         * without an HTTP method are never coalesced. A task which joins a call in flight does not
+         * receive {@link Callback#onShouldExecute(Call)}.
+         */
+        public @NotNull BuilderType coalescing(boolean coalescing) {
+            mCoalescing = coalescing;
+            //noinspection unchecked
+            return (BuilderType) this;
+        }
+
+        public @NotNull TaskPriority priority() {
+            return mPriority;
+        }
+
+        /**
+         * Sets the priority class of the task in {@link TaskQueue}.
+         */
+        public @NotNull BuilderType priority(@NotNull TaskPriority priority) {
+            Guard.notNull(priority, "priority is null");
+            mPriority = priority;
+            //noinspection unchecked
+            return (BuilderType) this;
+        }
+
+        public long deadline() {
+            return mDeadline;
+        }
+
+        /**
+         * Sets the time in milliseconds from now within which the task must complete,
+         * including the time spent in the queue, the connection, the retries and the conversion of the response.
+         */
+        public @NotNull BuilderType deadline(long timeout) {
+            Guard.isTrue(timeout > 0, "timeout <= 0");
+            mDeadline = timeout;
+            //noinspection unchecked
+            return (BuilderType) this;
+        }
+
+        public long maxQueueAge() {
+            return mMaxQueueAge;
+        }
+
+        /**
+         * Sets the maximum time in milliseconds the task may wait in {@link TaskQueue}. A task which waits longer
+         * is failed with {@link StaleTaskException} without sending the request.
+         */
+        public @NotNull BuilderType maxQueueAge(long maxQueueAge) {
+            Guard.isTrue(maxQueueAge >= 0, "maxQueueAge < 0");
+            mMaxQueueAge = maxQueueAge;
+            //noinspection unchecked
+            return (BuilderType) this;
+        }
+
         public @NotNull Task<Ti, To> build() {
             checkInvalidState();
             return newTask();
@@ -342,18 +787,45 @@ public abstract class AbstractTask<Ti extends HttpBody, To>
 
         private String mTag;
         private RequestEntity<Ti> mRequestEntity;
+        private boolean mCoalescing;
+        private TaskPriority mPriority = TaskPriority.NORMAL;
+        private long mDeadline = 0;
+        private long mMaxQueueAge = 0;
     }
 
 // MARK: - Constants
 
+    private static final String TAG = AbstractTask.class.getSimpleName();
+
     private static final HttpClientConfig DEFAULT_HTTP_CLIENT_CONFIG =
             new DefaultHttpClientConfig();
 
+    private static final Cancellable NOT_CANCELLABLE = () -> false;
+
+    // Sends the retried requests over to the worker threads when their delay expires
+    private static final ScheduledExecutorService RETRY_TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, AbstractTask.class.getSimpleName() + " RetryTimer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
 // MARK: - Variables
 
     private final String mTag;
 
     private final RequestEntity<Ti> mRequestEntity;
 
+    private final boolean mCoalescing;
+
+    private final TaskPriority mPriority;
+
+    private final long mDeadline;
+
+    private final long mDeadlineTime;
+
+    private final long mMaxQueueAge;
+
     private final AtomicBoolean mCancelled = new AtomicBoolean(false);
+
+    private final AtomicReference<Cancellable> mHttpCall = new AtomicReference<>();
 }
@@ -0,0 +1,179 @@
+package com.roxiemobile.networkingapi.network.rest.request;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.networkingapi.network.http.MediaType;
+import com.roxiemobile.networkingapi.network.rest.StreamingHttpBody;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * A body which is read from a file, or from a slice of it, while the request is sent.
+ * The body can be written any number of times, so the request may be retried.
+ * <p>
+ * The file is read straight into the buffers of the connection, without copying it through a buffer of its own.
+ */
+public class FileBody implements StreamingHttpBody
+{
+// MARK: - Construction
+
+    public FileBody(@NotNull File file, @NotNull MediaType mediaType, long offset, long length) {
+        this(file, null, mediaType, offset, length);
+        Guard.isTrue(offset + length <= file.length(), "offset + length > file.length()");
+    }
+
+    public FileBody(@NotNull File file, @NotNull MediaType mediaType) {
+        this(file, mediaType, 0, file.length());
+    }
+
+    public FileBody(@NotNull File file) {
+        this(file, MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * Creates a body which is read from a slice of the channel. The channel is read at the absolute positions,
+     * so its own position doesn't change. The channel is owned by the caller and must stay open
+     * until the request completes.
+     */
+    public FileBody(@NotNull FileChannel channel, @NotNull MediaType mediaType, long offset, long length) {
+        this(null, channel, mediaType, offset, length);
+    }
+
+    private FileBody(@Nullable File file, @Nullable FileChannel channel, @NotNull MediaType mediaType, long offset, long length) {
+        Guard.isTrue(file != null || channel != null, "file and channel are null");
+        Guard.notNull(mediaType, "mediaType is null");
+        Guard.isTrue(offset >= 0, "offset < 0");
+        Guard.isTrue(length >= 0, "length < 0");
+
+        // Init instance variables
+        mFile = file;
+        mChannel = channel;
+        mMediaType = mediaType;
+        mOffset = offset;
+        mLength = length;
+    }
+
+// MARK: - Methods
+
+    @Override
+    public MediaType mediaType() {
+        return mMediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return mLength;
+    }
+
+    @Override
+    public void writeTo(@NotNull OutputStream stream) throws IOException {
+        try (InputStream input = openStream()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+
+            while ((count = input.read(buffer)) != -1) {
+                stream.write(buffer, 0, count);
+            }
+        }
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        try (Source source = Okio.source(openStream())) {
+            sink.writeAll(source);
+        }
+    }
+
+    @Override
+    public boolean isReplayable() {
+        return true;
+    }
+
+    /**
+     * Opens a stream which reads the body from the file. The stream must be closed by the caller.
+     */
+    public @NotNull InputStream openStream() throws IOException {
+        if (mFile != null) {
+            FileInputStream stream = new FileInputStream(mFile);
+            return new InnerSliceInputStream(stream.getChannel(), mOffset, mLength, stream);
+        }
+        return new InnerSliceInputStream(mChannel, mOffset, mLength, null);
+    }
+
+// MARK: - Inner Types
+
+    /**
+     * Reads a slice of the channel at the absolute positions.
+     */
+    private static final class InnerSliceInputStream extends InputStream
+    {
+        private InnerSliceInputStream(@NotNull FileChannel channel, long offset, long length, @Nullable Closeable owner) {
+            // Init instance variables
+            mChannel = channel;
+            mPosition = offset;
+            mRemaining = length;
+            mOwner = owner;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return (read(buffer, 0, 1) == -1) ? -1 : (buffer[0] & 0xFF);
+        }
+
+        @Override
+        public int read(@NotNull byte[] buffer, int offset, int length) throws IOException {
+            if (mRemaining <= 0) {
+                return -1;
+            }
+
+            int count = mChannel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(length, mRemaining)), mPosition);
+            if (count > 0) {
+                mPosition += count;
+                mRemaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (mOwner != null) {
+                mOwner.close();
+            }
+        }
+
+        private final FileChannel mChannel;
+        private final Closeable mOwner;
+        private long mPosition;
+        private long mRemaining;
+    }
+
+// MARK: - Constants
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+// MARK: - Variables
+
+    private final File mFile;
+
+    private final FileChannel mChannel;
+
+    private final MediaType mMediaType;
+
+    private final long mOffset;
+
+    private final long mLength;
+}
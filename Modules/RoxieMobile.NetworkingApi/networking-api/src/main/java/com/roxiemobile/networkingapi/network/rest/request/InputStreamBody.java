@@ -0,0 +1,90 @@
+package com.roxiemobile.networkingapi.network.rest.request;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.networkingapi.network.http.MediaType;
+import com.roxiemobile.networkingapi.network.rest.StreamingHttpBody;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A body which copies the input stream to the connection, and closes the stream once it is written.
+ * The body can be written once only, so the request is not retried.
+ */
+public class InputStreamBody implements StreamingHttpBody
+{
+// MARK: - Construction
+
+    public InputStreamBody(@NotNull InputStream stream, @NotNull MediaType mediaType, long contentLength) {
+        Guard.notNull(stream, "stream is null");
+        Guard.notNull(mediaType, "mediaType is null");
+        Guard.isTrue(contentLength >= -1, "contentLength < -1");
+
+        // Init instance variables
+        mStream = stream;
+        mMediaType = mediaType;
+        mContentLength = contentLength;
+    }
+
+    public InputStreamBody(@NotNull InputStream stream, @NotNull MediaType mediaType) {
+        this(stream, mediaType, -1);
+    }
+
+    public InputStreamBody(@NotNull InputStream stream) {
+        this(stream, MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+// MARK: - Methods
+
+    @Override
+    public MediaType mediaType() {
+        return mMediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return mContentLength;
+    }
+
+    @Override
+    public void writeTo(@NotNull OutputStream stream) throws IOException {
+        if (mConsumed.getAndSet(true)) {
+            throw new IllegalStateException("The body has already been written");
+        }
+
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+
+            while ((count = mStream.read(buffer)) != -1) {
+                stream.write(buffer, 0, count);
+            }
+        }
+        finally {
+            mStream.close();
+        }
+    }
+
+    @Override
+    public boolean isReplayable() {
+        return false;
+    }
+
+// MARK: - Constants
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+// MARK: - Variables
+
+    private final InputStream mStream;
+
+    private final MediaType mMediaType;
+
+    private final long mContentLength;
+
+    private final AtomicBoolean mConsumed = new AtomicBoolean(false);
+}
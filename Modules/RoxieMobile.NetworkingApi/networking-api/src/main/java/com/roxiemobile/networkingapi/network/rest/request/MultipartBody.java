@@ -0,0 +1,263 @@
+package com.roxiemobile.networkingapi.network.rest.request;
+
+import com.roxiemobile.androidcommons.data.Constants.Charsets;
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.networkingapi.network.http.MediaType;
+import com.roxiemobile.networkingapi.network.rest.HttpBody;
+import com.roxiemobile.networkingapi.network.rest.StreamingHttpBody;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import okio.BufferedSink;
+
+/**
+ * A multipart/form-data body which mixes form fields with files and other bodies. The parts are written
+ * to the connection one after another, so the streaming parts are never held in memory. The boundary and
+ * the headers of the parts are encoded while the body is written.
+ * <p>
+ * The length of the body is known if the lengths of all its parts are known. The body can be written
+ * more than once if all its parts can.
+ */
+public class MultipartBody implements StreamingHttpBody
+{
+// MARK: - Construction
+
+    private MultipartBody(@NotNull Builder builder) {
+        // Init instance variables
+        mBoundary = builder.mBoundary;
+        mParts = Collections.unmodifiableList(new ArrayList<>(builder.mParts));
+        mMediaType = new MediaType(MediaType.MULTIPART_FORM_DATA, Collections.singletonMap("boundary", mBoundary));
+    }
+
+// MARK: - Properties
+
+    public @NotNull String boundary() {
+        return mBoundary;
+    }
+
+// MARK: - Methods
+
+    @Override
+    public MediaType mediaType() {
+        return mMediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        long length = 0;
+
+        for (Part part : mParts) {
+            long bodyLength = part.contentLength();
+            if (bodyLength < 0) {
+                return -1;
+            }
+            length += encode(part.headers(mBoundary)).length + bodyLength + CRLF.length;
+        }
+        return length + encode(trailer(mBoundary)).length;
+    }
+
+    @Override
+    public void writeTo(@NotNull OutputStream stream) throws IOException {
+        for (Part part : mParts) {
+            stream.write(encode(part.headers(mBoundary)));
+            part.writeTo(stream);
+            stream.write(CRLF);
+        }
+        stream.write(encode(trailer(mBoundary)));
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        for (Part part : mParts) {
+            sink.write(encode(part.headers(mBoundary)));
+            part.writeTo(sink);
+            sink.write(CRLF);
+        }
+        sink.write(encode(trailer(mBoundary)));
+    }
+
+    @Override
+    public boolean isReplayable() {
+        for (Part part : mParts) {
+            if (!part.isReplayable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+// MARK: - Private Methods
+
+    private static @NotNull String trailer(@NotNull String boundary) {
+        return "--" + boundary + "--\r\n";
+    }
+
+    private static @NotNull byte[] encode(@NotNull String value) {
+        return value.getBytes(Charsets.UTF_8);
+    }
+
+// MARK: - Inner Types
+
+    public static final class Builder
+    {
+        public Builder() {
+            // Do nothing
+        }
+
+        /**
+         * Sets the boundary which separates the parts. A random boundary is used by default.
+         */
+        public @NotNull Builder boundary(@NotNull String boundary) {
+            Guard.notEmpty(boundary, "boundary is empty");
+            mBoundary = boundary;
+            return this;
+        }
+
+        /**
+         * Adds a form field with the string value.
+         */
+        public @NotNull Builder addFormField(@NotNull String name, @NotNull String value) {
+            Guard.notNull(value, "value is null");
+            return addPart(name, null, new ByteArrayBody(encode(value)), false);
+        }
+
+        /**
+         * Adds a part with the body, e.g. a {@link FileBody} or a {@link ByteArrayBody}. A streaming body is
+         * written to the connection as is, while the bytes of any other body are requested twice:
+         * once to compute the length of the multipart body, and once to write it.
+         */
+        public @NotNull Builder addFormPart(@NotNull String name, @Nullable String fileName, @NotNull HttpBody body) {
+            Guard.notNull(body, "body is null");
+            return addPart(name, fileName, body, true);
+        }
+
+        public @NotNull MultipartBody build() {
+            Guard.isTrue(!mParts.isEmpty(), "parts are empty");
+            return new MultipartBody(this);
+        }
+
+        private @NotNull Builder addPart(@NotNull String name, @Nullable String fileName, @NotNull HttpBody body, boolean withMediaType) {
+            Guard.notNull(name, "name is null");
+            mParts.add(new Part(name, fileName, body, withMediaType));
+            return this;
+        }
+
+        private String mBoundary = UUID.randomUUID().toString();
+        private final List<Part> mParts = new ArrayList<>();
+    }
+
+    private static final class Part
+    {
+        private Part(@NotNull String name, @Nullable String fileName, @NotNull HttpBody body, boolean withMediaType) {
+            // Init instance variables
+            mName = name;
+            mFileName = fileName;
+            mBody = body;
+            mWithMediaType = withMediaType;
+        }
+
+        private @NotNull String headers(@NotNull String boundary) {
+            StringBuilder builder = new StringBuilder()
+                    .append("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=").append(quote(mName));
+
+            if (mFileName != null) {
+                builder.append("; filename=").append(quote(mFileName));
+            }
+            builder.append("\r\n");
+
+            MediaType mediaType = mBody.mediaType();
+            if (mWithMediaType && mediaType != null) {
+                builder.append("Content-Type: ").append(mediaType).append("\r\n");
+            }
+            return builder.append("\r\n").toString();
+        }
+
+        private long contentLength() {
+            if (mBody instanceof StreamingHttpBody) {
+                return ((StreamingHttpBody) mBody).contentLength();
+            }
+
+            byte[] bytes = mBody.body();
+            return (bytes != null) ? bytes.length : 0;
+        }
+
+        private void writeTo(@NotNull OutputStream stream) throws IOException {
+            if (mBody instanceof StreamingHttpBody) {
+                ((StreamingHttpBody) mBody).writeTo(stream);
+            }
+            else {
+                byte[] bytes = mBody.body();
+                if (bytes != null) {
+                    stream.write(bytes);
+                }
+            }
+        }
+
+        private void writeTo(@NotNull BufferedSink sink) throws IOException {
+            if (mBody instanceof StreamingHttpBody) {
+                ((StreamingHttpBody) mBody).writeTo(sink);
+            }
+            else {
+                byte[] bytes = mBody.body();
+                if (bytes != null) {
+                    sink.write(bytes);
+                }
+            }
+        }
+
+        private boolean isReplayable() {
+            return !(mBody instanceof StreamingHttpBody) || ((StreamingHttpBody) mBody).isReplayable();
+        }
+
+        /**
+         * Quotes the name as browsers do, escaping the characters which would break the header.
+         */
+        private static @NotNull String quote(@NotNull String value) {
+            StringBuilder builder = new StringBuilder("\"");
+            for (int idx = 0; idx < value.length(); idx++) {
+                char ch = value.charAt(idx);
+                switch (ch) {
+                    case '\n':
+                        builder.append("%0A");
+                        break;
+                    case '\r':
+                        builder.append("%0D");
+                        break;
+                    case '"':
+                        builder.append("%22");
+                        break;
+                    default:
+                        builder.append(ch);
+                        break;
+                }
+            }
+            return builder.append('"').toString();
+        }
+
+        private final String mName;
+        private final String mFileName;
+        private final HttpBody mBody;
+        private final boolean mWithMediaType;
+    }
+
+// MARK: - Constants
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+// MARK: - Variables
+
+    private final String mBoundary;
+
+    private final List<Part> mParts;
+
+    private final MediaType mMediaType;
+}
@@ -1,6 +1,8 @@
 package com.roxiemobile.networkingapi.network.rest.request;
 
 import com.roxiemobile.networkingapi.network.rest.Task;
+import com.roxiemobile.networkingapi.network.rest.TaskPriority;
+import com.roxiemobile.networkingapi.network.rest.TaskQueue;
 
 public interface TaskBuilder<Ti, To>
 {
@@ -14,6 +16,36 @@ public interface TaskBuilder<Ti, To>
      */
     RequestEntity<Ti> requestEntity();
 
+    /**
+     * Whether the task may share a single HTTP call with identical tasks in flight.
+     */
+    default boolean coalescing() {
+        return false;
+    }
+
+    /**
+     * The priority class of the task in {@link TaskQueue}.
+     */
+    default TaskPriority priority() {
+        return TaskPriority.NORMAL;
+    }
+
+    /**
+     * The time in milliseconds within which the task must complete, including the time spent in the queue,
+     * or 0 if the task has no deadline.
+     */
+    default long deadline() {
+        return 0;
+    }
+
+    /**
+     * The maximum time in milliseconds the task may wait in {@link TaskQueue} before it is shed,
+     * or 0 if the task may wait for any time.
+     */
+    default long maxQueueAge() {
+        return 0;
+    }
+
     /**
      * TODO
      */
@@ -0,0 +1,39 @@
+package com.roxiemobile.networkingapi.network.rest.response.error;
+
+import com.roxiemobile.androidcommons.diagnostics.Guard;
+import com.roxiemobile.networkingapi.network.rest.response.RestApiError;
+
+import org.jetbrains.annotations.NotNull;
+
+public class RestApiErrorException extends Exception
+{
+// MARK: - Construction
+
+    /**
+     * Construct a new instance of {@code RestApiErrorException} based on a {@link RestApiError}.
+     */
+    public RestApiErrorException(@NotNull RestApiError error) {
+        super(error.getType() + " error", error.getCause());
+        Guard.notNull(error, "error is null");
+
+        // Init instance variables
+        mError = error;
+    }
+
+// MARK: - Properties
+
+    /**
+     * Returns the error the call failed with.
+     */
+    public @NotNull RestApiError getError() {
+        return mError;
+    }
+
+// MARK: - Constants
+
+    private static final long serialVersionUID = -5197624785310593612L;
+
+// MARK: - Variables
+
+    private final transient RestApiError mError;
+}
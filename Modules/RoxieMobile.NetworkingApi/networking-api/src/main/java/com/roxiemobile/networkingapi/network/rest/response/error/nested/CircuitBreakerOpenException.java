@@ -0,0 +1,35 @@
+package com.roxiemobile.networkingapi.network.rest.response.error.nested;
+
+import java.io.IOException;
+
+public class CircuitBreakerOpenException extends IOException
+{
+// MARK: - Construction
+
+    /**
+     * Construct a new instance of {@code CircuitBreakerOpenException}.
+     */
+    public CircuitBreakerOpenException(String host) {
+        super("Circuit breaker is open for " + host);
+
+        // Init instance variables
+        mHost = host;
+    }
+
+// MARK: - Properties
+
+    /**
+     * Returns the host whose circuit breaker rejected the call.
+     */
+    public String getHost() {
+        return mHost;
+    }
+
+// MARK: - Constants
+
+    private static final long serialVersionUID = -3158297400713425531L;
+
+// MARK: - Variables
+
+    private final String mHost;
+}
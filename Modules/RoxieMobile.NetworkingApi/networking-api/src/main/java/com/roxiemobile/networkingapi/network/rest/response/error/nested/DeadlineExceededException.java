@@ -0,0 +1,27 @@
+package com.roxiemobile.networkingapi.network.rest.response.error.nested;
+
+import java.io.InterruptedIOException;
+
+public class DeadlineExceededException extends InterruptedIOException
+{
+// MARK: - Construction
+
+    /**
+     * Construct a new instance of {@code DeadlineExceededException}.
+     */
+    public DeadlineExceededException() {
+        super("Task deadline exceeded");
+    }
+
+    /**
+     * Construct a new instance of {@code DeadlineExceededException}.
+     */
+    public DeadlineExceededException(Throwable cause) {
+        this();
+        initCause(cause);
+    }
+
+// MARK: - Constants
+
+    private static final long serialVersionUID = 2406731920348827112L;
+}
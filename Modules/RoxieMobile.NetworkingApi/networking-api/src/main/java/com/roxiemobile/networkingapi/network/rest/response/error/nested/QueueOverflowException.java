@@ -0,0 +1,19 @@
+package com.roxiemobile.networkingapi.network.rest.response.error.nested;
+
+import java.io.IOException;
+
+public class QueueOverflowException extends IOException
+{
+// MARK: - Construction
+
+    /**
+     * Construct a new instance of {@code QueueOverflowException}.
+     */
+    public QueueOverflowException() {
+        super("Task queue is full");
+    }
+
+// MARK: - Constants
+
+    private static final long serialVersionUID = 5830217746092513418L;
+}
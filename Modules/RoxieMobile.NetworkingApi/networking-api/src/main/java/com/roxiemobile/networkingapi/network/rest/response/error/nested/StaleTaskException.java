@@ -0,0 +1,19 @@
+package com.roxiemobile.networkingapi.network.rest.response.error.nested;
+
+import java.io.IOException;
+
+public class StaleTaskException extends IOException
+{
+// MARK: - Construction
+
+    /**
+     * Construct a new instance of {@code StaleTaskException}.
+     */
+    public StaleTaskException() {
+        super("Task waited in the queue longer than its maximum queue age");
+    }
+
+// MARK: - Constants
+
+    private static final long serialVersionUID = -7415926802739845516L;
+}
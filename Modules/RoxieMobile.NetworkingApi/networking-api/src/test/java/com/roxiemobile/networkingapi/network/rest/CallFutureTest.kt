@@ -0,0 +1,48 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Fans a future out to several dependent futures, and checks that cancelling one of them leaves
+ * the source and the other branches running.
+ */
+class CallFutureTest {
+
+    @Test
+    fun cancelledBranch_leavesSourceAndSiblingsRunning() {
+        val operationCancelled = AtomicBoolean()
+        val source = CallFuture<Int>().doOnCancel(Cancellable { operationCancelled.compareAndSet(false, true) })
+
+        val incremented = source.thenApply { it + 1 }
+        val doubled = source.thenApply { it * 2 }
+        assertTrue(incremented.cancel(true))
+
+        assertFalse(source.isCancelled)
+        assertFalse(doubled.isCancelled)
+        assertFalse(operationCancelled.get())
+
+        source.complete(2)
+        assertEquals(4, doubled.get(1, TimeUnit.SECONDS))
+    }
+
+    @Test
+    fun cancelledBranches_cancelSourceOnceAllAreCancelled() {
+        val operationCancelled = AtomicBoolean()
+        val source = CallFuture<Int>().doOnCancel(Cancellable { operationCancelled.compareAndSet(false, true) })
+
+        val incremented = source.thenApply { it + 1 }
+        val doubled = source.thenApply { it * 2 }
+
+        incremented.cancel(true)
+        assertFalse(source.isCancelled)
+
+        doubled.cancel(true)
+        assertTrue(source.isCancelled)
+        assertTrue(operationCancelled.get())
+    }
+}
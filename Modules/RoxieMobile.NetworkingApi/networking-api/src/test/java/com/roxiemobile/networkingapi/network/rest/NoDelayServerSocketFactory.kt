@@ -0,0 +1,28 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import java.net.InetAddress
+import java.net.ServerSocket
+import java.net.Socket
+import javax.net.ServerSocketFactory
+
+/**
+ * Disables Nagle's algorithm on the accepted sockets of a mock server, so that the separately
+ * flushed headers and body of a response don't wait for a delayed ACK of the client.
+ */
+internal class NoDelayServerSocketFactory : ServerSocketFactory() {
+
+    override fun createServerSocket() = object : ServerSocket() {
+        override fun accept(): Socket {
+            val socket = Socket()
+            implAccept(socket)
+            socket.tcpNoDelay = true
+            return socket
+        }
+    }
+
+    override fun createServerSocket(port: Int) = throw UnsupportedOperationException()
+
+    override fun createServerSocket(port: Int, backlog: Int) = throw UnsupportedOperationException()
+
+    override fun createServerSocket(port: Int, backlog: Int, address: InetAddress?) = throw UnsupportedOperationException()
+}
@@ -0,0 +1,160 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import com.roxiemobile.networkingapi.network.http.CompatJavaNetCookieJar
+import com.roxiemobile.networkingapi.network.http.CookieManager
+import com.roxiemobile.networkingapi.network.http.CookiePolicy
+import com.roxiemobile.networkingapi.network.http.InMemoryCookieStore
+import com.roxiemobile.networkingapi.network.rest.request.BasicRequestEntity
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.lang.management.ManagementFactory
+import java.security.KeyStore
+import java.util.concurrent.TimeUnit
+import javax.net.ssl.SSLContext
+import javax.net.ssl.TrustManagerFactory
+import javax.net.ssl.X509TrustManager
+
+/**
+ * Compares the allocations and latency of a steady-state request at 1k requests/sec
+ * through a reused client and through a client built per request, as [RestApiClient] did before.
+ */
+class RestApiClientBenchmarkTest {
+
+    @Before
+    fun setUp() {
+        server.setServerSocketFactory(NoDelayServerSocketFactory())
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) = MockResponse().setBody("ok")
+        })
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun reusedClient_allocatesLessPerRequest() {
+        val request = Request.Builder().url(server.url("/")).build()
+        val interceptor = Interceptor { it.proceed(it.request()) }
+        val trustManager = platformTrustManager()
+        val sslSocketFactory = SSLContext.getInstance("TLS")
+                .apply { init(null, arrayOf(trustManager), null) }.socketFactory
+
+        // The previous versions built a client with its own cookie jar and TLS settings for every request
+        val rebuilt = {
+            val cookieManager = CookieManager(InMemoryCookieStore(), CookiePolicy.ACCEPT_ALL)
+            val client = SHARED_HTTP_CLIENT.newBuilder()
+                    .connectTimeout(30, TimeUnit.SECONDS)
+                    .readTimeout(30, TimeUnit.SECONDS)
+                    .cookieJar(CompatJavaNetCookieJar(cookieManager))
+                    .addInterceptor(interceptor)
+                    .sslSocketFactory(sslSocketFactory, trustManager)
+                    .build()
+            client.newCall(request).execute().use { it.body()!!.bytes() }
+            Unit
+        }
+
+        val reusedClient = SHARED_HTTP_CLIENT.newBuilder()
+                .connectTimeout(30, TimeUnit.SECONDS)
+                .readTimeout(30, TimeUnit.SECONDS)
+                .addInterceptor(interceptor)
+                .sslSocketFactory(sslSocketFactory, trustManager)
+                .build()
+        val reused = {
+            reusedClient.newCall(request).execute().use { it.body()!!.bytes() }
+            Unit
+        }
+
+        // Warm up both paths before measuring
+        run(WARMUP_REQUESTS, rebuilt)
+        run(WARMUP_REQUESTS, reused)
+
+        val rebuiltStats = run(REQUESTS, rebuilt)
+        val reusedStats = run(REQUESTS, reused)
+
+        println("rebuilt client: $rebuiltStats")
+        println("reused client:  $reusedStats")
+        assertTrue("$reusedStats vs $rebuiltStats", reusedStats.bytesPerRequest < rebuiltStats.bytesPerRequest)
+    }
+
+    @Test
+    fun restApiClient_keepsUpWithRequestRate() {
+        val client = RestApiClient.Builder().build()
+        val entity = BasicRequestEntity.Builder<HttpBody>().uri(server.url("/").uri()).build()
+        val request = { assertTrue(client.get(entity).isSuccess) }
+
+        run(WARMUP_REQUESTS, request)
+        val stats = run(REQUESTS, request)
+
+        // The whole request, including the mapping of the response entity
+        println("RestApiClient:  $stats")
+        assertTrue(stats.toString(), stats.requestsPerSecond >= REQUESTS_PER_SECOND * 8 / 10)
+    }
+
+    private fun platformTrustManager(): X509TrustManager {
+        val factory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm())
+        factory.init(null as KeyStore?)
+        return factory.trustManagers.filterIsInstance<X509TrustManager>().first()
+    }
+
+    /**
+     * Sends the given number of requests, paced at [REQUESTS_PER_SECOND], from the calling thread.
+     */
+    private fun run(count: Int, request: () -> Unit): Stats {
+        val interval = TimeUnit.SECONDS.toNanos(1) / REQUESTS_PER_SECOND
+        val latencies = LongArray(count)
+
+        val thread = Thread.currentThread().id
+        val allocatedBefore = THREAD_MX_BEAN.getThreadAllocatedBytes(thread)
+        val startTime = System.nanoTime()
+
+        for (i in 0 until count) {
+            // Wait for the time slot of the request
+            val slot = startTime + i * interval
+            while (System.nanoTime() < slot) {
+                Thread.yield()
+            }
+
+            val requestTime = System.nanoTime()
+            request()
+            latencies[i] = System.nanoTime() - requestTime
+        }
+
+        val allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(thread) - allocatedBefore
+        val elapsed = System.nanoTime() - startTime
+        latencies.sort()
+
+        return Stats(
+                bytesPerRequest = allocated / count,
+                requestsPerSecond = count * TimeUnit.SECONDS.toNanos(1) / elapsed,
+                p50 = TimeUnit.NANOSECONDS.toMicros(latencies[count / 2]),
+                p99 = TimeUnit.NANOSECONDS.toMicros(latencies[count * 99 / 100])
+        )
+    }
+
+    private data class Stats(val bytesPerRequest: Long, val requestsPerSecond: Long, val p50: Long, val p99: Long) {
+        override fun toString() = "$bytesPerRequest B/request, $requestsPerSecond req/s, p50=${p50}us, p99=${p99}us"
+    }
+
+    private val server = MockWebServer()
+
+    companion object {
+        private const val REQUESTS_PER_SECOND = 1_000L
+        private const val REQUESTS = 1_000
+        private const val WARMUP_REQUESTS = 200
+
+        private val SHARED_HTTP_CLIENT = OkHttpClient()
+        private val THREAD_MX_BEAN = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+    }
+}
@@ -0,0 +1,93 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import com.roxiemobile.networkingapi.network.rest.request.BasicRequestEntity
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class RestApiClientHedgingTest {
+
+    @Before
+    fun setUp() {
+        // The first request is stuck, the duplicate one is answered at once
+        val requestCount = AtomicInteger()
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) =
+                    if (requestCount.getAndIncrement() == 0) {
+                        MockResponse().setBody("slow").setHeadersDelay(STUCK_TIME_MILLIS, TimeUnit.MILLISECONDS)
+                    }
+                    else {
+                        MockResponse().setBody("fast")
+                    }
+        })
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun blockingHedgedCall_isNotQueuedBehindStuckRequest() {
+        // A single request per host is allowed by the dispatcher
+        val client = RestApiClient.Builder()
+                .maxRequestsPerHost(1)
+                .hedgingPolicy(HedgingPolicy.Builder().delay(HEDGE_DELAY_MILLIS).budgetRatio(1.0).build())
+                .build()
+        val entity = BasicRequestEntity.Builder<HttpBody>().uri(server.url("/").uri()).build()
+
+        val startTime = System.nanoTime()
+        val result = client.get(entity)
+        val elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+
+        assertTrue(result.isSuccess)
+        assertEquals("fast", String(result.value().body()!!))
+        assertTrue("elapsed ${elapsed}ms", elapsed < STUCK_TIME_MILLIS / 2)
+    }
+
+    @Test
+    fun blockingHedgedCalls_areBoundedByHedgeWorkers() {
+        // Every request is slow, so that each call sends a duplicate
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) =
+                    MockResponse().setBody("slow").setHeadersDelay(SLOW_TIME_MILLIS, TimeUnit.MILLISECONDS)
+        })
+        val client = RestApiClient.Builder()
+                .hedgingPolicy(HedgingPolicy.Builder().delay(HEDGE_DELAY_MILLIS).budgetRatio(1.0).build())
+                .build()
+        val entity = BasicRequestEntity.Builder<HttpBody>().uri(server.url("/").uri()).build()
+
+        val successCount = AtomicInteger()
+        val callers = (1..CALLERS).map {
+            Thread { if (client.get(entity).isSuccess) successCount.incrementAndGet() }.apply { start() }
+        }
+
+        Thread.sleep(SLOW_TIME_MILLIS / 2)
+        val hedgeWorkers = Thread.getAllStackTraces().keys.count { it.name.endsWith("HedgeWorker") }
+        callers.forEach { it.join() }
+
+        println("$CALLERS hedged calls held $hedgeWorkers hedge workers")
+        assertEquals(CALLERS, successCount.get())
+        assertTrue("$hedgeWorkers hedge workers", hedgeWorkers <= MAX_HEDGE_WORKERS)
+    }
+
+    private val server = MockWebServer()
+
+    companion object {
+        private const val HEDGE_DELAY_MILLIS = 50L
+        private const val STUCK_TIME_MILLIS = 3_000L
+
+        private const val CALLERS = 80
+        private const val SLOW_TIME_MILLIS = 500L
+        private const val MAX_HEDGE_WORKERS = 64
+    }
+}
@@ -0,0 +1,165 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import com.google.gson.JsonElement
+import com.roxiemobile.networkingapi.network.HttpKeys.MethodName
+import com.roxiemobile.networkingapi.network.rest.config.DefaultHttpClientConfig
+import com.roxiemobile.networkingapi.network.rest.config.HttpClientConfig
+import com.roxiemobile.networkingapi.network.rest.converter.AbstractStreamingItemConverter.ItemReader
+import com.roxiemobile.networkingapi.network.rest.converter.AbstractStreamingJsonArrayItemConverter
+import com.roxiemobile.networkingapi.network.rest.request.AbstractTask
+import com.roxiemobile.networkingapi.network.rest.request.BasicRequestEntity
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.ConversionException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import okhttp3.Interceptor
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okio.Buffer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.InputStream
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Collects the elements of a throttled JSON array through [asFlow], and checks that they are emitted
+ * while the body arrives, and that cancelling the collector tears down the HTTP call at once.
+ */
+class TaskCoroutinesTest {
+
+    @Before
+    fun setUp() {
+        server.setServerSocketFactory(NoDelayServerSocketFactory())
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun asFlow_emitsItemsWhileBodyArrives() = runBlocking {
+        server.enqueue(jsonArrayResponse(ITEMS).throttleBody(THROTTLE_BYTES, THROTTLE_PERIOD_MILLIS, TimeUnit.MILLISECONDS))
+        val ids = ArrayList<Int>()
+        var firstItemMillis = 0L
+
+        val startTime = System.nanoTime()
+        newTask().asFlow(ReadFailureConverter(CountDownLatch(1))).collect { item ->
+            if (ids.isEmpty()) {
+                firstItemMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+            }
+            ids.add(item.asJsonObject["id"].asInt)
+        }
+        val elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+
+        println("first of $ITEMS items after ${firstItemMillis}ms, last after ${elapsed}ms")
+        assertEquals((0 until ITEMS).toList(), ids)
+        assertTrue("first item after ${firstItemMillis}ms", firstItemMillis < elapsed / 2)
+    }
+
+    @Test
+    fun cancelledCollector_tearsDownCall() = runBlocking {
+        // The server stalls after the first items of the body
+        server.enqueue(jsonArrayResponse(ITEMS).throttleBody(STALL_AFTER_BYTES, STALL_MILLIS, TimeUnit.MILLISECONDS))
+        val task = newTask()
+        val readFailure = CountDownLatch(1)
+        val firstItem = CompletableDeferred<Unit>()
+
+        val job = launch {
+            task.asFlow(ReadFailureConverter(readFailure)).collect { firstItem.complete(Unit) }
+        }
+        firstItem.await()
+
+        // Let the collector run into the stall, then cancel it while the read of the next item is blocked
+        delay(CANCEL_AFTER_MILLIS)
+        val cancelTime = System.nanoTime()
+        job.cancelAndJoin()
+        assertTrue(readFailure.await(STALL_MILLIS, TimeUnit.MILLISECONDS))
+        val elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cancelTime)
+
+        println("blocked read failed ${elapsed}ms after the collector was cancelled")
+        assertTrue(task.isCancelled)
+        assertTrue("elapsed ${elapsed}ms", elapsed < MAX_STOP_TIME_MILLIS)
+    }
+
+    private fun newTask() = GetTask.Builder()
+            .requestEntity(BasicRequestEntity.Builder<HttpBody>().uri(server.url("/").uri()).build())
+            .build() as GetTask
+
+    private fun jsonArrayResponse(items: Int): MockResponse {
+        val json = (0 until items).joinToString(",", "[", "]") { """{"id":$it}""" }
+        return MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setChunkedBody(Buffer().writeUtf8(json), THROTTLE_BYTES.toInt())
+    }
+
+    /**
+     * Reads the elements of a JSON array, and counts the latch down once a read fails.
+     */
+    private class ReadFailureConverter(private val readFailure: CountDownLatch)
+        : AbstractStreamingJsonArrayItemConverter<JsonElement>() {
+
+        override fun newReader(entity: ResponseEntity<InputStream>): ItemReader<JsonElement> {
+            val reader = super.newReader(entity)
+            return ItemReader {
+                try {
+                    reader.read()
+                }
+                catch (ex: ConversionException) {
+                    readFailure.countDown()
+                    throw ex
+                }
+            }
+        }
+
+        override fun convertItem(json: JsonElement) = json
+    }
+
+    /**
+     * Sends a GET request with the non-blocking methods of the client.
+     */
+    private class GetTask(builder: Builder) : AbstractTask<HttpBody, ByteArray>(builder) {
+
+        override fun httpMethod() = MethodName.GET
+
+        override fun onSuccess(httpResult: CallResult<ByteArray>) = httpResult
+
+        override fun newBuilder() = Builder(this)
+
+        // The default network interceptors need the Android device info
+        override fun httpClientConfig(): HttpClientConfig = object : DefaultHttpClientConfig() {
+            override fun networkInterceptors() = emptyList<Interceptor>()
+        }
+
+        class Builder : AbstractTask.Builder<HttpBody, ByteArray, Builder> {
+            constructor() : super()
+            constructor(task: Task<HttpBody, ByteArray>) : super(task)
+
+            override fun newTask(): Task<HttpBody, ByteArray> = GetTask(this)
+        }
+    }
+
+    private val server = MockWebServer()
+
+    companion object {
+        private const val ITEMS = 5_000
+
+        // Sends 4 KB every 20 ms, so the whole body of about 60 KB takes about 300 ms
+        private const val THROTTLE_BYTES = 4L * 1024L
+        private const val THROTTLE_PERIOD_MILLIS = 20L
+
+        private const val STALL_AFTER_BYTES = 32L
+        private const val STALL_MILLIS = 2_000L
+        private const val CANCEL_AFTER_MILLIS = 200L
+        private const val MAX_STOP_TIME_MILLIS = 100L
+    }
+}
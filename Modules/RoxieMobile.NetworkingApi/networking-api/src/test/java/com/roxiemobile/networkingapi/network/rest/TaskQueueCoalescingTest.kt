@@ -0,0 +1,140 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import com.roxiemobile.networkingapi.network.HttpKeys.MethodName
+import com.roxiemobile.networkingapi.network.rest.config.DefaultHttpClientConfig
+import com.roxiemobile.networkingapi.network.rest.config.HttpClientConfig
+import com.roxiemobile.networkingapi.network.rest.request.AbstractTask
+import com.roxiemobile.networkingapi.network.rest.request.BasicRequestEntity
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity
+import com.roxiemobile.networkingapi.network.rest.response.RestApiError
+import okhttp3.Interceptor
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Submits coalescing tasks to the same URI while their responses are delayed, and checks that only
+ * the tasks with the same safe HTTP method share a single HTTP call.
+ */
+class TaskQueueCoalescingTest {
+
+    @Before
+    fun setUp() {
+        server.setServerSocketFactory(NoDelayServerSocketFactory())
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) = MockResponse()
+                    .setBody("ok")
+                    .setHeadersDelay(RESPONSE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+        })
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        ioExecutor.shutdownNow()
+        server.shutdown()
+    }
+
+    @Test
+    fun identicalGetTasks_shareSingleCall() {
+        submitAll(MethodName.GET, MethodName.GET)
+        assertEquals(1, server.requestCount)
+    }
+
+    @Test
+    fun tasksWithDifferentMethods_areNotCoalesced() {
+        submitAll(MethodName.GET, MethodName.DELETE)
+        assertEquals(2, server.requestCount)
+    }
+
+    @Test
+    fun unsafeTasks_areNotCoalesced() {
+        submitAll(MethodName.DELETE, MethodName.DELETE)
+        assertEquals(2, server.requestCount)
+    }
+
+    /**
+     * Submits the coalescing tasks with the given methods at once, and waits until all of them are finished.
+     */
+    private fun submitAll(vararg methods: String) {
+        val queue = TaskQueue.Builder()
+                .ioExecutor(ioExecutor)
+                .callbackExecutor(Executor { it.run() })
+                .build()
+        val done = CountDownLatch(methods.size)
+
+        methods.forEach { method ->
+            val task = MethodTask.Builder(method)
+                    .requestEntity(BasicRequestEntity.Builder<HttpBody>().uri(server.url("/").uri()).build())
+                    .coalescing(true)
+                    .build()
+            queue.submit(task, FinishCallback(done), false)
+        }
+        assertTrue(done.await(RESPONSE_DELAY_MILLIS * 10, TimeUnit.MILLISECONDS))
+    }
+
+    /**
+     * Sends a request with the given method by the non-blocking methods of the client.
+     */
+    private class MethodTask(builder: Builder) : AbstractTask<HttpBody, ByteArray>(builder) {
+
+        private val method = builder.method
+
+        override fun httpMethod() = method
+
+        override fun onSuccess(httpResult: CallResult<ByteArray>) = httpResult
+
+        override fun newBuilder() = Builder(this)
+
+        // The default network interceptors need the Android device info
+        override fun httpClientConfig(): HttpClientConfig = object : DefaultHttpClientConfig() {
+            override fun networkInterceptors() = emptyList<Interceptor>()
+        }
+
+        class Builder : AbstractTask.Builder<HttpBody, ByteArray, Builder> {
+            constructor(method: String) : super() {
+                this.method = method
+            }
+
+            constructor(task: Task<HttpBody, ByteArray>) : super(task) {
+                this.method = task.httpMethod()!!
+            }
+
+            override fun newTask(): Task<HttpBody, ByteArray> = MethodTask(this)
+
+            val method: String
+        }
+    }
+
+    /**
+     * Counts the latch down once the task is finished.
+     */
+    private class FinishCallback(private val done: CountDownLatch) : Callback<HttpBody, ByteArray> {
+
+        override fun onShouldExecute(call: Call<HttpBody>) = true
+
+        override fun onSuccess(call: Call<HttpBody>, entity: ResponseEntity<ByteArray>) = done.countDown()
+
+        override fun onFailure(call: Call<HttpBody>, error: RestApiError) = done.countDown()
+
+        override fun onCancel(call: Call<HttpBody>) = done.countDown()
+    }
+
+    private val server = MockWebServer()
+
+    private val ioExecutor = Executors.newCachedThreadPool()
+
+    companion object {
+        private const val RESPONSE_DELAY_MILLIS = 300L
+    }
+}
@@ -0,0 +1,171 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import com.roxiemobile.networkingapi.network.rest.request.RequestEntity
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity
+import com.roxiemobile.networkingapi.network.rest.response.RestApiError
+import com.roxiemobile.networkingapi.network.rest.response.error.ApplicationLayerError
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Enqueues and finishes tasks with the same tag from many threads at once, and checks that
+ * the tag registry of [TaskQueue] neither loses the tasks nor becomes a bottleneck.
+ */
+class TaskQueueTagTest {
+
+    @After
+    fun tearDown() {
+        ioExecutor.shutdownNow()
+    }
+
+    @Test
+    fun cancel_reachesTaskAddedWhileOthersFinish() {
+        val queue = newQueue()
+        val running = AtomicBoolean(true)
+
+        // The other threads keep emptying the set of the tag, which is then removed from the registry
+        val threads = (1 until THREADS).map {
+            Thread {
+                while (running.get()) {
+                    val done = CountDownLatch(1)
+                    queue.submit(FakeTask(finishes = true), CompletionCallback(done), false)
+                    done.await()
+                }
+            }
+        }
+        threads.forEach { it.start() }
+
+        // Add a task which never finishes, then cancel it by its tag
+        var lostTasks = 0
+        repeat(RACE_ROUNDS) {
+            val task = FakeTask(finishes = false)
+            queue.submit(task, null, false)
+            queue.cancelAll(TAG)
+
+            if (!task.cancelled) {
+                lostTasks++
+            }
+        }
+
+        running.set(false)
+        threads.forEach { it.join() }
+        assertEquals(0, lostTasks)
+    }
+
+    @Test
+    fun enqueue_sameTagScalesLikeDistinctTags() {
+        // Warm up both paths before measuring
+        throughput { TAG }
+        throughput { thread -> "$TAG-$thread" }
+
+        val sameTag = throughput { TAG }
+        val distinctTags = throughput { thread -> "$TAG-$thread" }
+
+        println("same tag:      $sameTag tasks/s")
+        println("distinct tags: $distinctTags tasks/s")
+        assertTrue("$sameTag vs $distinctTags", sameTag * 4 >= distinctTags)
+    }
+
+    /**
+     * Enqueues tasks which finish at once from [THREADS] threads, and returns the number of tasks
+     * finished per second.
+     */
+    private fun throughput(tagOf: (Int) -> String): Long {
+        val queue = newQueue()
+        val done = CountDownLatch(THREADS * TASKS_PER_THREAD)
+        val barrier = CyclicBarrier(THREADS + 1)
+
+        val threads = (0 until THREADS).map { index ->
+            Thread {
+                barrier.await()
+                repeat(TASKS_PER_THREAD) {
+                    queue.submit(FakeTask(finishes = true, tag = tagOf(index), done = done), null, false)
+                }
+            }
+        }
+        threads.forEach { it.start() }
+
+        barrier.await()
+        val startTime = System.nanoTime()
+        assertTrue(done.await(60, TimeUnit.SECONDS))
+        val elapsed = System.nanoTime() - startTime
+
+        threads.forEach { it.join() }
+        return THREADS * TASKS_PER_THREAD * TimeUnit.SECONDS.toNanos(1) / elapsed
+    }
+
+    private fun newQueue() = TaskQueue.Builder()
+            .ioExecutor(ioExecutor)
+            .callbackExecutor(Executor { it.run() })
+            .maxRunningTasks(Int.MAX_VALUE)
+            .build()
+
+    /**
+     * A task which fails at once or never finishes, until it is cancelled.
+     */
+    private class FakeTask(
+            private val finishes: Boolean,
+            private val tag: String = TAG,
+            private val done: CountDownLatch? = null
+    ) : Task<Any, Any>, Cancellable {
+
+        override fun tag() = tag
+
+        override fun requestEntity(): RequestEntity<Any>? = null
+
+        override fun execute(callback: Callback<Any, Any>) = executeAsync(callback, null)
+
+        override fun executeAsync(callback: Callback<Any, Any>, conversionExecutor: Executor?) {
+            if (finishes) {
+                callback.onFailure(this, ApplicationLayerError(IOException()))
+                done?.countDown()
+            }
+        }
+
+        override fun enqueue(callback: Callback<Any, Any>?, callbackOnUiThread: Boolean) =
+                throw UnsupportedOperationException()
+
+        override fun clone() = this
+
+        override fun cancel(): Boolean {
+            cancelled = true
+            return true
+        }
+
+        @Volatile
+        var cancelled = false
+            private set
+    }
+
+    /**
+     * Counts the latch down once the task is finished or cancelled.
+     */
+    private class CompletionCallback(private val done: CountDownLatch) : Callback<Any, Any> {
+
+        override fun onShouldExecute(call: Call<Any>) = true
+
+        override fun onSuccess(call: Call<Any>, entity: ResponseEntity<Any>) = done.countDown()
+
+        override fun onFailure(call: Call<Any>, error: RestApiError) = done.countDown()
+
+        override fun onCancel(call: Call<Any>) = done.countDown()
+    }
+
+    private val ioExecutor = Executors.newFixedThreadPool(THREADS)
+
+    companion object {
+        private const val TAG = "tag"
+        private const val THREADS = 32
+        private const val TASKS_PER_THREAD = 2_000
+        private const val RACE_ROUNDS = 20_000
+    }
+}
@@ -0,0 +1,145 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.IOException
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Simulates the load of [TaskScheduler] with jobs which hold their running slot for a fixed time,
+ * and measures the time the jobs wait in the queue, by priority and by tag.
+ */
+class TaskSchedulerBenchmarkTest {
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun priority_foregroundTasksSkipBackgroundBacklog() {
+        val prioritized = foregroundWaitTimes(TaskPriority.IMMEDIATE)
+        val fifo = foregroundWaitTimes(TaskPriority.PREFETCH)
+
+        println("foreground wait with priorities:    $prioritized")
+        println("foreground wait without priorities: $fifo")
+        assertTrue(prioritized.toString(), prioritized.p99 < JOB_TIME_MILLIS * 5)
+        assertTrue(fifo.toString(), fifo.p50 > prioritized.p99 * 4)
+    }
+
+    @Test
+    fun fairShare_lightTagSkipsHeavyTagBacklog() {
+        val fair = tagWaitTimes(FairSharePolicy.Builder().build())
+        val fifo = tagWaitTimes(null)
+
+        println("light tag wait with fair share:    ${fair.first}, heavy tag: ${fair.second}")
+        println("light tag wait without fair share: ${fifo.first}, heavy tag: ${fifo.second}")
+        assertTrue(fair.first.toString(), fair.first.p99 < JOB_TIME_MILLIS * 5)
+        assertTrue(fifo.first.toString(), fifo.first.p50 > fair.first.p99 * 4)
+
+        // The heavy tag gets the rest of the worker threads, so its backlog is not drained any slower
+        assertTrue("${fair.second} vs ${fifo.second}", fair.second.max < fifo.second.max * 5 / 4)
+    }
+
+    /**
+     * Queues a backlog of jobs with a heavy tag, then sends a job with a light tag of the same priority
+     * at a steady rate, and returns the queue wait times of the light and the heavy jobs.
+     */
+    private fun tagWaitTimes(fairSharePolicy: FairSharePolicy?): Pair<WaitStats, WaitStats> {
+        val scheduler = newScheduler(fairSharePolicy)
+        val lightWaitTimes = Collections.synchronizedList(ArrayList<Long>())
+        val heavyWaitTimes = Collections.synchronizedList(ArrayList<Long>())
+        val done = CountDownLatch(BACKGROUND_JOBS + FOREGROUND_JOBS)
+
+        // The group of a job is its tag, unless there is no fair share policy
+        val heavyGroup = fairSharePolicy?.groupOf(HEAVY_TAG)
+        val lightGroup = fairSharePolicy?.groupOf(LIGHT_TAG)
+
+        repeat(BACKGROUND_JOBS) {
+            scheduler.execute(SleepingJob(done, heavyWaitTimes), TaskPriority.NORMAL, null, heavyGroup, 0, 0, emptyList())
+        }
+        repeat(FOREGROUND_JOBS) {
+            scheduler.execute(SleepingJob(done, lightWaitTimes), TaskPriority.NORMAL, null, lightGroup, 0, 0, emptyList())
+            Thread.sleep(FOREGROUND_INTERVAL_MILLIS)
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS))
+        return WaitStats.of(lightWaitTimes) to WaitStats.of(heavyWaitTimes)
+    }
+
+    /**
+     * Queues a backlog of background jobs, then sends a foreground job with the given priority
+     * at a steady rate, and returns the queue wait times of the foreground jobs.
+     */
+    private fun foregroundWaitTimes(foregroundPriority: TaskPriority): WaitStats {
+        val scheduler = newScheduler()
+        val waitTimes = Collections.synchronizedList(ArrayList<Long>())
+        val done = CountDownLatch(BACKGROUND_JOBS + FOREGROUND_JOBS)
+
+        repeat(BACKGROUND_JOBS) {
+            scheduler.execute(SleepingJob(done, null), TaskPriority.PREFETCH, null, null, 0, 0, emptyList())
+        }
+        repeat(FOREGROUND_JOBS) {
+            scheduler.execute(SleepingJob(done, waitTimes), foregroundPriority, null, null, 0, 0, emptyList())
+            Thread.sleep(FOREGROUND_INTERVAL_MILLIS)
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS))
+        return WaitStats.of(waitTimes)
+    }
+
+    private fun newScheduler(fairSharePolicy: FairSharePolicy? = null) = TaskScheduler(executor, RUNNING_JOBS, RUNNING_JOBS,
+            AGING_INTERVAL_MILLIS, Int.MAX_VALUE, OverflowPolicy.FAIL, 0, fairSharePolicy)
+
+    /**
+     * Holds its running slot for [JOB_TIME_MILLIS] and records the time it waited in the queue.
+     */
+    private class SleepingJob(
+            private val done: CountDownLatch,
+            private val waitTimes: MutableList<Long>?
+    ) : TaskScheduler.Job {
+
+        override fun run(release: TaskScheduler.Release) {
+            waitTimes?.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueueTime))
+            Thread.sleep(JOB_TIME_MILLIS)
+            release.release(false)
+            done.countDown()
+        }
+
+        override fun drop(cause: IOException) {
+            done.countDown()
+        }
+
+        private val enqueueTime = System.nanoTime()
+    }
+
+    private data class WaitStats(val p50: Long, val p99: Long, val max: Long) {
+        override fun toString() = "p50=${p50}ms, p99=${p99}ms, max=${max}ms"
+
+        companion object {
+            fun of(waitTimes: List<Long>): WaitStats {
+                val sorted = waitTimes.sorted()
+                return WaitStats(sorted[sorted.size / 2], sorted[sorted.size * 99 / 100], sorted.last())
+            }
+        }
+    }
+
+    private val executor = Executors.newCachedThreadPool()
+
+    companion object {
+        private const val RUNNING_JOBS = 4
+        private const val JOB_TIME_MILLIS = 10L
+        private const val AGING_INTERVAL_MILLIS = 10_000L
+
+        private const val BACKGROUND_JOBS = 400
+        private const val FOREGROUND_JOBS = 40
+        private const val FOREGROUND_INTERVAL_MILLIS = 20L
+
+        private const val HEAVY_TAG = "heavy"
+        private const val LIGHT_TAG = "light"
+    }
+}
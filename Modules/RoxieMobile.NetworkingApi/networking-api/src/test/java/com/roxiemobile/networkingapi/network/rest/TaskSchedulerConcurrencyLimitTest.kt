@@ -0,0 +1,130 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Runs the load of simulated hosts through [TaskScheduler], and checks where the adaptive
+ * concurrency limits of the hosts settle.
+ */
+class TaskSchedulerConcurrencyLimitTest {
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+        timer.shutdownNow()
+    }
+
+    @Test
+    fun concurrencyLimit_fastAndSlowHostsKeepTheirOwnLimits() {
+        val scheduler = newScheduler()
+        val fastHost = SimulatedHost(FAST_HOST, latencyMillis = 10, capacity = Int.MAX_VALUE)
+        val slowHost = SimulatedHost(SLOW_HOST, latencyMillis = 100, capacity = Int.MAX_VALUE)
+
+        // The round-trip times of the hosts differ by 10x, but neither of them is overloaded
+        runLoad(scheduler, listOf(fastHost to 800, slowHost to 80))
+
+        val fastLimit = scheduler.concurrencyLimit(FAST_HOST)
+        val slowLimit = scheduler.concurrencyLimit(SLOW_HOST)
+        println("fast host: ${fastLimit.history()}")
+        println("slow host: ${slowLimit.history()}")
+        assertTrue(fastLimit.toString(), fastLimit.limit() >= MAX_RUNNING_JOBS_PER_HOST * 3 / 4)
+        assertTrue(slowLimit.toString(), slowLimit.limit() >= MAX_RUNNING_JOBS_PER_HOST * 3 / 4)
+    }
+
+    @Test
+    fun concurrencyLimit_convergesNearHostCapacity() {
+        val scheduler = newScheduler()
+        val host = SimulatedHost(FAST_HOST, latencyMillis = 10, capacity = CAPACITY)
+
+        // The round-trip time grows with the number of requests in flight above the capacity of the host
+        runLoad(scheduler, listOf(host to 1_000))
+
+        // The limit saws around the capacity, without running up to the maximum or down to the minimum
+        val history = scheduler.concurrencyLimit(FAST_HOST).history()
+        val settled = history.takeLast(history.size / 2)
+        println("limit: $history, peak in flight: ${host.peakInFlight}")
+        assertTrue(settled.toString(), settled.average() in CAPACITY.toDouble()..CAPACITY * 3.0)
+        assertTrue(settled.toString(), settled.max()!! < MAX_RUNNING_JOBS_PER_HOST * 3 / 4)
+    }
+
+    private fun newScheduler() = TaskScheduler(executor, MAX_RUNNING_JOBS, MAX_RUNNING_JOBS_PER_HOST,
+            AGING_INTERVAL_MILLIS, Int.MAX_VALUE, OverflowPolicy.FAIL, 0, null)
+
+    /**
+     * Queues the given number of jobs for every host, and waits until all of them are finished.
+     */
+    private fun runLoad(scheduler: TaskScheduler, load: List<Pair<SimulatedHost, Int>>) {
+        val done = CountDownLatch(load.sumBy { it.second })
+
+        for ((host, jobs) in load) {
+            repeat(jobs) {
+                scheduler.execute(SimulatedJob(host, done), TaskPriority.NORMAL, host.name, null, 0, 0, emptyList())
+            }
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS))
+    }
+
+    /**
+     * A server whose response time grows linearly with the number of requests in flight above its capacity.
+     */
+    private class SimulatedHost(val name: String, val latencyMillis: Long, val capacity: Int) {
+
+        fun start(): Long {
+            val inFlight = this.inFlight.incrementAndGet()
+            peakInFlight = maxOf(peakInFlight, inFlight)
+            return latencyMillis * maxOf(inFlight, capacity) / capacity
+        }
+
+        fun finish() {
+            inFlight.decrementAndGet()
+        }
+
+        private val inFlight = AtomicInteger()
+
+        @Volatile
+        var peakInFlight = 0
+            private set
+    }
+
+    /**
+     * Holds its running slot for the response time of the host, without blocking a worker thread.
+     */
+    private inner class SimulatedJob(
+            private val host: SimulatedHost,
+            private val done: CountDownLatch
+    ) : TaskScheduler.Job {
+
+        override fun run(release: TaskScheduler.Release) {
+            val responseTime = host.start()
+            timer.schedule({
+                host.finish()
+                release.release(false)
+                done.countDown()
+            }, responseTime, TimeUnit.MILLISECONDS)
+        }
+
+        override fun drop(cause: IOException) {
+            done.countDown()
+        }
+    }
+
+    private val executor = Executors.newCachedThreadPool()
+    private val timer = Executors.newScheduledThreadPool(4)
+
+    companion object {
+        private const val FAST_HOST = "http://fast.example.com:80"
+        private const val SLOW_HOST = "http://slow.example.com:80"
+
+        private const val MAX_RUNNING_JOBS = 64
+        private const val MAX_RUNNING_JOBS_PER_HOST = 32
+        private const val CAPACITY = 4
+        private const val AGING_INTERVAL_MILLIS = 10_000L
+    }
+}
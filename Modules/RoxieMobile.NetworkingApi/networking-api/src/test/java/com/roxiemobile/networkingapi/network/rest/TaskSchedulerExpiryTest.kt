@@ -0,0 +1,88 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.DeadlineExceededException
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.StaleTaskException
+import org.junit.After
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Queues tasks behind a task which holds the only running slot, and checks that they are dropped
+ * as soon as they expire, without waiting for a slot to free up.
+ */
+class TaskSchedulerExpiryTest {
+
+    @After
+    fun tearDown() {
+        running.countDown()
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun queuedTask_isDroppedAtDeadlineWhileSlotsAreBusy() {
+        val scheduler = TaskScheduler(executor, 1, 1, AGING_INTERVAL_MILLIS, MAX_QUEUED_TASKS, OverflowPolicy.FAIL, 0, null)
+        scheduler.execute(PendingJob(), TaskPriority.NORMAL, null, null, 0, 0, emptyList())
+
+        val job = PendingJob()
+        val deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(EXPIRY_MILLIS)
+        scheduler.execute(job, TaskPriority.NORMAL, null, null, deadline, 0, emptyList())
+
+        assertTrue(job.dropped.await(EXPIRY_MILLIS + MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS))
+        val delay = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - deadline)
+
+        println("queued task dropped ${delay}ms after its deadline")
+        assertTrue(job.dropCause.toString(), job.dropCause is DeadlineExceededException)
+    }
+
+    @Test
+    fun queuedTask_isDroppedWhenStaleWhileSlotsAreBusy() {
+        val scheduler = TaskScheduler(executor, 1, 1, AGING_INTERVAL_MILLIS, MAX_QUEUED_TASKS, OverflowPolicy.FAIL, 0, null)
+        scheduler.execute(PendingJob(), TaskPriority.NORMAL, null, null, 0, 0, emptyList())
+
+        val job = PendingJob()
+        val staleTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(EXPIRY_MILLIS)
+        scheduler.execute(job, TaskPriority.NORMAL, null, null, 0, staleTime, emptyList())
+
+        assertTrue(job.dropped.await(EXPIRY_MILLIS + MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS))
+        val delay = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - staleTime)
+
+        println("queued task dropped ${delay}ms after its stale time")
+        assertTrue(job.dropCause.toString(), job.dropCause is StaleTaskException)
+    }
+
+    /**
+     * Holds its running slot until the test is finished.
+     */
+    private inner class PendingJob : TaskScheduler.Job {
+
+        override fun run(release: TaskScheduler.Release) {
+            running.await()
+            release.release(false)
+        }
+
+        override fun drop(cause: IOException) {
+            dropCause = cause
+            dropped.countDown()
+        }
+
+        val dropped = CountDownLatch(1)
+
+        @Volatile
+        var dropCause: IOException? = null
+    }
+
+    private val running = CountDownLatch(1)
+    private val executor = Executors.newCachedThreadPool()
+
+    companion object {
+        private const val AGING_INTERVAL_MILLIS = 10_000L
+        private const val MAX_QUEUED_TASKS = 16
+
+        private const val EXPIRY_MILLIS = 200L
+        private const val MAX_DELAY_MILLIS = 100L
+    }
+}
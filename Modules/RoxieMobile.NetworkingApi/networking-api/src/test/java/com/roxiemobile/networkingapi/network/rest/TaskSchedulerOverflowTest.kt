@@ -0,0 +1,65 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import com.roxiemobile.networkingapi.network.rest.response.error.nested.QueueOverflowException
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.IOException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class TaskSchedulerOverflowTest {
+
+    @After
+    fun tearDown() {
+        running.countDown()
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun execute_failsTaskWhenQueueStaysFullPastOverflowTimeout() {
+        val scheduler = TaskScheduler(executor, 1, 1, AGING_INTERVAL_MILLIS, 1, OverflowPolicy.BLOCK,
+                OVERFLOW_TIMEOUT_MILLIS, null)
+
+        // One job holds the only running slot, and another one fills the queue
+        scheduler.execute(PendingJob(), TaskPriority.NORMAL, null, null, 0, 0, emptyList())
+        scheduler.execute(PendingJob(), TaskPriority.NORMAL, null, null, 0, 0, emptyList())
+
+        val job = PendingJob()
+        val startTime = System.nanoTime()
+        scheduler.execute(job, TaskPriority.NORMAL, null, null, 0, 0, emptyList())
+        val elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+
+        assertTrue(job.dropCause.toString(), job.dropCause is QueueOverflowException)
+        assertTrue("elapsed ${elapsed}ms", elapsed >= OVERFLOW_TIMEOUT_MILLIS * 9 / 10)
+        assertEquals(1, scheduler.rejectedTaskCount())
+    }
+
+    /**
+     * Holds its running slot until the test is finished.
+     */
+    private inner class PendingJob : TaskScheduler.Job {
+
+        override fun run(release: TaskScheduler.Release) {
+            running.await()
+            release.release(false)
+        }
+
+        override fun drop(cause: IOException) {
+            dropCause = cause
+        }
+
+        @Volatile
+        var dropCause: IOException? = null
+    }
+
+    private val running = CountDownLatch(1)
+    private val executor = Executors.newCachedThreadPool()
+
+    companion object {
+        private const val AGING_INTERVAL_MILLIS = 10_000L
+        private const val OVERFLOW_TIMEOUT_MILLIS = 200L
+    }
+}
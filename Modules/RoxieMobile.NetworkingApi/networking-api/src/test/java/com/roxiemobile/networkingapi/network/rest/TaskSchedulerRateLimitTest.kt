@@ -0,0 +1,163 @@
+package com.roxiemobile.networkingapi.network.rest
+
+import com.roxiemobile.networkingapi.network.rest.request.BasicRequestEntity
+import com.roxiemobile.networkingapi.network.rest.request.RequestEntity
+import com.roxiemobile.networkingapi.network.rest.routing.HttpRoute
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.IOException
+import java.net.URI
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+/**
+ * Checks when the rate limited jobs of [TaskScheduler] take their tokens.
+ */
+class TaskSchedulerRateLimitTest {
+
+    @After
+    fun tearDown() {
+        executor.shutdownNow()
+    }
+
+    @Test
+    fun execute_throttledJobDoesNotHoldBackOtherJobs() {
+        val scheduler = newScheduler()
+        val rateLimiter = RateLimiter.forTag(TAG, RATE, 1)
+        val done = CountDownLatch(3)
+
+        // The second job waits for its token in the queue, while the unlimited job passes it by
+        val first = RecordingJob(done)
+        val throttled = RecordingJob(done)
+        val unlimited = RecordingJob(done)
+        scheduler.execute(first, TaskPriority.NORMAL, null, null, 0, 0, listOf(rateLimiter))
+        scheduler.execute(throttled, TaskPriority.NORMAL, null, null, 0, 0, listOf(rateLimiter))
+        scheduler.execute(unlimited, TaskPriority.NORMAL, null, null, 0, 0, emptyList())
+
+        assertTrue(done.await(5, TimeUnit.SECONDS))
+        assertTrue(unlimited.startTime - throttled.startTime < 0)
+        assertTrue(millisBetween(first, throttled) >= TOKEN_INTERVAL_MILLIS * 8 / 10)
+        assertEquals(2, rateLimiter.acquiredCount())
+        assertEquals(1, rateLimiter.throttledCount())
+    }
+
+    @Test
+    fun execute_cancelledJobSpendsNoToken() {
+        val scheduler = newScheduler()
+        val rateLimiter = RateLimiter.forTag(TAG, RATE, 1)
+        val done = CountDownLatch(3)
+
+        // The cancelled job leaves the queue at once, and the token goes to the next job
+        val first = RecordingJob(done)
+        val cancelled = RecordingJob(done, finished = true)
+        val next = RecordingJob(done)
+        scheduler.execute(first, TaskPriority.NORMAL, null, null, 0, 0, listOf(rateLimiter))
+        scheduler.execute(cancelled, TaskPriority.NORMAL, null, null, 0, 0, listOf(rateLimiter))
+        scheduler.execute(next, TaskPriority.NORMAL, null, null, 0, 0, listOf(rateLimiter))
+
+        assertTrue(done.await(5, TimeUnit.SECONDS))
+        assertTrue(millisBetween(first, cancelled) < TOKEN_INTERVAL_MILLIS / 2)
+        assertTrue(millisBetween(first, next) < TOKEN_INTERVAL_MILLIS * 3 / 2)
+        assertEquals(2, rateLimiter.acquiredCount())
+    }
+
+    @Test
+    fun executeThrottled_eachRetryTakesToken() {
+        val scheduler = newScheduler()
+        val rateLimiter = RateLimiter.forTag(TAG, RATE, 1)
+        val startTimes = Collections.synchronizedList(ArrayList<Long>())
+        val done = CountDownLatch(RETRIES)
+
+        repeat(RETRIES) {
+            scheduler.executeThrottled(RecordingJob(done), listOf(rateLimiter), Runnable {
+                startTimes.add(System.nanoTime())
+                done.countDown()
+            })
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS))
+        val elapsed = TimeUnit.NANOSECONDS.toMillis(startTimes.max()!! - startTimes.min()!!)
+        assertTrue("elapsed ${elapsed}ms", elapsed >= TOKEN_INTERVAL_MILLIS * (RETRIES - 1) * 8 / 10)
+        assertEquals(RETRIES.toLong(), rateLimiter.acquiredCount())
+    }
+
+    @Test
+    fun forRoute_matchesWholePathSegments() {
+        val rateLimiter = RateLimiter.forRoute(HttpRoute.buildRoute(URI.create("https://example.com/v1")), RATE, 1)
+
+        assertTrue(rateLimiter.matches(RouteTask("https://example.com/v1")))
+        assertTrue(rateLimiter.matches(RouteTask("https://example.com/v1/users")))
+        assertTrue(rateLimiter.matches(RouteTask("https://example.com/v1?page=2")))
+        assertFalse(rateLimiter.matches(RouteTask("https://example.com/v10")))
+        assertFalse(rateLimiter.matches(RouteTask("https://example.com/v1beta/users")))
+    }
+
+    private fun newScheduler() = TaskScheduler(executor, 16, 16, AGING_INTERVAL_MILLIS,
+            Int.MAX_VALUE, OverflowPolicy.FAIL, 0, null)
+
+    private fun millisBetween(from: RecordingJob, to: RecordingJob) =
+            TimeUnit.NANOSECONDS.toMillis(to.startTime - from.startTime)
+
+    /**
+     * Records the time it was started, and gives its running slot back at once.
+     */
+    private class RecordingJob(
+            private val done: CountDownLatch,
+            private val finished: Boolean = false
+    ) : TaskScheduler.Job {
+
+        override fun run(release: TaskScheduler.Release) {
+            startTime = System.nanoTime()
+            release.release(false)
+            done.countDown()
+        }
+
+        override fun drop(cause: IOException) {
+            done.countDown()
+        }
+
+        override fun isFinished() = finished
+
+        @Volatile
+        var startTime = 0L
+            private set
+    }
+
+    /**
+     * A task which is only matched against the rate limiters.
+     */
+    private class RouteTask(uri: String) : Task<Any, Any> {
+
+        override fun tag() = TAG
+
+        override fun requestEntity(): RequestEntity<Any> = entity
+
+        override fun execute(callback: Callback<Any, Any>) = throw UnsupportedOperationException()
+
+        override fun executeAsync(callback: Callback<Any, Any>, conversionExecutor: Executor?) =
+                throw UnsupportedOperationException()
+
+        override fun enqueue(callback: Callback<Any, Any>?, callbackOnUiThread: Boolean) =
+                throw UnsupportedOperationException()
+
+        override fun clone() = this
+
+        private val entity = BasicRequestEntity.Builder<Any>().uri(URI.create(uri)).build()
+    }
+
+    private val executor = Executors.newCachedThreadPool()
+
+    companion object {
+        private const val TAG = "tag"
+        private const val RATE = 5.0
+        private const val TOKEN_INTERVAL_MILLIS = 200L
+        private const val RETRIES = 4
+        private const val AGING_INTERVAL_MILLIS = 10_000L
+    }
+}
@@ -0,0 +1,84 @@
+package com.roxiemobile.networkingapi.network.rest.interceptor
+
+import com.roxiemobile.networkingapi.network.rest.HttpBody
+import com.roxiemobile.networkingapi.network.rest.NoDelayServerSocketFactory
+import com.roxiemobile.networkingapi.network.rest.RestApiClient
+import com.roxiemobile.networkingapi.network.rest.request.BasicRequestEntity
+import com.roxiemobile.networkingapi.network.rest.request.InputStreamBody
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okio.Buffer
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.ByteArrayInputStream
+import java.util.concurrent.TimeUnit
+
+/**
+ * Sends a one-shot request body and receives a streamed response body through the logging interceptor
+ * of the debug builds, and checks that neither of them is read by the interceptor.
+ */
+class SafeHttpLoggingInterceptorTest {
+
+    @Before
+    fun setUp() {
+        server.setServerSocketFactory(NoDelayServerSocketFactory())
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun oneShotRequestBody_isSentWhole() {
+        server.enqueue(MockResponse().setBody("ok"))
+        val content = ByteArray(UPLOAD_SIZE) { it.toByte() }
+
+        // The stream can be read once only
+        val entity = BasicRequestEntity.Builder<HttpBody>()
+                .uri(server.url("/").uri())
+                .body(InputStreamBody(ByteArrayInputStream(content)))
+                .build()
+
+        assertTrue(client.post(entity).isSuccess)
+        assertArrayEquals(content, server.takeRequest().body.readByteArray())
+    }
+
+    @Test
+    fun streamedResponseBody_isNotBuffered() {
+        // The body is throttled, so that reading it to the end takes a while
+        server.enqueue(MockResponse()
+                .setChunkedBody(Buffer().write(ByteArray(DOWNLOAD_SIZE)), CHUNK_SIZE)
+                .throttleBody(CHUNK_SIZE.toLong(), THROTTLE_PERIOD_MILLIS, TimeUnit.MILLISECONDS))
+        val entity = BasicRequestEntity.Builder<HttpBody>().uri(server.url("/").uri()).build()
+
+        val startTime = System.nanoTime()
+        val result = client.getStreaming(entity)
+        val elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+        result.value().body()!!.close()
+
+        println("streamed response returned after ${elapsed}ms")
+        assertTrue(result.isSuccess)
+        assertTrue("elapsed ${elapsed}ms", elapsed < DOWNLOAD_TIME_MILLIS / 2)
+    }
+
+    private val server = MockWebServer()
+
+    private val client = RestApiClient.Builder()
+            .networkInterceptors(listOf(Interceptors.newHttpLoggingInterceptor()))
+            .build()
+
+    companion object {
+        private const val UPLOAD_SIZE = 1024
+
+        // Sends 64 KB every 50 ms, so the whole body takes about 1.6 seconds
+        private const val DOWNLOAD_SIZE = 2 * 1024 * 1024
+        private const val CHUNK_SIZE = 64 * 1024
+        private const val THROTTLE_PERIOD_MILLIS = 50L
+        private const val DOWNLOAD_TIME_MILLIS = 1_600L
+    }
+}
@@ -0,0 +1,128 @@
+package com.roxiemobile.networkingapi.network.rest.request
+
+import com.roxiemobile.networkingapi.network.rest.Call
+import com.roxiemobile.networkingapi.network.rest.CallResult
+import com.roxiemobile.networkingapi.network.rest.Callback
+import com.roxiemobile.networkingapi.network.rest.HttpBody
+import com.roxiemobile.networkingapi.network.rest.HttpResult
+import com.roxiemobile.networkingapi.network.rest.NoDelayServerSocketFactory
+import com.roxiemobile.networkingapi.network.rest.Task
+import com.roxiemobile.networkingapi.network.rest.config.DefaultHttpClientConfig
+import com.roxiemobile.networkingapi.network.rest.config.HttpClientConfig
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity
+import com.roxiemobile.networkingapi.network.rest.response.RestApiError
+import okhttp3.Interceptor
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import okio.Buffer
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Cancels a task in the middle of a large download and checks that the HTTP call is torn down
+ * at once, instead of the body being read to the end and then discarded.
+ */
+class AbstractTaskCancellationTest {
+
+    @Before
+    fun setUp() {
+        // The body is throttled, so that reading it to the end would take a few seconds
+        val body = Buffer().write(ByteArray(DOWNLOAD_SIZE))
+        server.setServerSocketFactory(NoDelayServerSocketFactory())
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) = MockResponse()
+                    .setBody(body)
+                    .throttleBody(THROTTLE_BYTES, THROTTLE_PERIOD_MILLIS, TimeUnit.MILLISECONDS)
+        })
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+    }
+
+    @Test
+    fun cancel_abortsDownloadInProgress() {
+        val task = DownloadTask.Builder()
+                .requestEntity(BasicRequestEntity.Builder<HttpBody>().uri(server.url("/").uri()).build())
+                .build() as DownloadTask
+
+        val outcome = AtomicReference<String>()
+        val done = CountDownLatch(1)
+        val thread = Thread {
+            task.execute(OutcomeCallback(outcome))
+            done.countDown()
+        }
+        thread.start()
+
+        // Let the download get going, then cancel it
+        Thread.sleep(CANCEL_AFTER_MILLIS)
+        val cancelTime = System.nanoTime()
+        assertTrue(task.cancel())
+
+        assertTrue(done.await(DOWNLOAD_TIME_MILLIS, TimeUnit.MILLISECONDS))
+        val elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cancelTime)
+
+        println("download stopped ${elapsed}ms after cancel()")
+        assertEquals("cancel", outcome.get())
+        assertTrue("elapsed ${elapsed}ms", elapsed < MAX_STOP_TIME_MILLIS)
+    }
+
+    /**
+     * Downloads the response body with the blocking client.
+     */
+    private class DownloadTask(builder: Builder) : AbstractTask<HttpBody, ByteArray>(builder) {
+
+        override fun callExecute(): HttpResult = newClient().get(requestEntity())
+
+        override fun onSuccess(httpResult: CallResult<ByteArray>) = httpResult
+
+        override fun newBuilder() = Builder()
+
+        // The default network interceptors need the Android device info
+        override fun httpClientConfig(): HttpClientConfig = object : DefaultHttpClientConfig() {
+            override fun networkInterceptors() = emptyList<Interceptor>()
+        }
+
+        class Builder : AbstractTask.Builder<HttpBody, ByteArray, Builder>() {
+            override fun newTask(): Task<HttpBody, ByteArray> = DownloadTask(this)
+        }
+    }
+
+    /**
+     * Records how the task has finished.
+     */
+    private class OutcomeCallback(private val outcome: AtomicReference<String>) : Callback<HttpBody, ByteArray> {
+
+        override fun onShouldExecute(call: Call<HttpBody>) = true
+
+        override fun onSuccess(call: Call<HttpBody>, entity: ResponseEntity<ByteArray>) = outcome.set("success")
+
+        override fun onFailure(call: Call<HttpBody>, error: RestApiError) = outcome.set("failure: ${error.cause}")
+
+        override fun onCancel(call: Call<HttpBody>) = outcome.set("cancel")
+    }
+
+    private val server = MockWebServer()
+
+    companion object {
+        private const val DOWNLOAD_SIZE = 100 * 1024 * 1024
+
+        // Sends 1 MB every 50 ms, so the whole body takes about 5 seconds
+        private const val THROTTLE_BYTES = 1024L * 1024L
+        private const val THROTTLE_PERIOD_MILLIS = 50L
+        private const val DOWNLOAD_TIME_MILLIS = 5_000L
+
+        private const val CANCEL_AFTER_MILLIS = 500L
+        private const val MAX_STOP_TIME_MILLIS = 100L
+    }
+}
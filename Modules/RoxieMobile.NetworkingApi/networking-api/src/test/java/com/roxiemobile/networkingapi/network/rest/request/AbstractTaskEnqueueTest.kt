@@ -0,0 +1,137 @@
+package com.roxiemobile.networkingapi.network.rest.request
+
+import com.roxiemobile.networkingapi.network.HttpKeys.MethodName
+import com.roxiemobile.networkingapi.network.rest.Call
+import com.roxiemobile.networkingapi.network.rest.CallResult
+import com.roxiemobile.networkingapi.network.rest.Callback
+import com.roxiemobile.networkingapi.network.rest.HttpBody
+import com.roxiemobile.networkingapi.network.rest.NoDelayServerSocketFactory
+import com.roxiemobile.networkingapi.network.rest.Task
+import com.roxiemobile.networkingapi.network.rest.TaskQueue
+import com.roxiemobile.networkingapi.network.rest.config.DefaultHttpClientConfig
+import com.roxiemobile.networkingapi.network.rest.config.HttpClientConfig
+import com.roxiemobile.networkingapi.network.rest.response.ResponseEntity
+import com.roxiemobile.networkingapi.network.rest.response.RestApiError
+import okhttp3.Interceptor
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Runs the tasks of a queue on a single worker thread while their responses are delayed, and checks that
+ * the worker is free again as soon as a request is sent.
+ */
+class AbstractTaskEnqueueTest {
+
+    @Before
+    fun setUp() {
+        server.setServerSocketFactory(NoDelayServerSocketFactory())
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) = MockResponse()
+                    .setBody("ok")
+                    .setHeadersDelay(RESPONSE_DELAY_MILLIS, TimeUnit.MILLISECONDS)
+        })
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        ioExecutor.shutdownNow()
+        server.shutdown()
+    }
+
+    @Test
+    fun queuedTask_doesNotHoldWorkerWhileResponseIsPending() {
+        val queue = TaskQueue.Builder()
+                .ioExecutor(ioExecutor)
+                .callbackExecutor(Executor { it.run() })
+                .maxRunningTasks(TASKS)
+                .build()
+        val successCount = AtomicInteger()
+        val done = CountDownLatch(TASKS)
+
+        val startTime = System.nanoTime()
+        repeat(TASKS) {
+            val task = GetTask.Builder()
+                    .requestEntity(BasicRequestEntity.Builder<HttpBody>().uri(server.url("/$it").uri()).build())
+                    .build()
+            queue.submit(task, CountingCallback(successCount, done), false)
+        }
+
+        // All the requests are in flight at once, although a single worker thread sends them
+        val worker = CountDownLatch(1)
+        ioExecutor.execute { worker.countDown() }
+        assertTrue("The worker is held by a pending request", worker.await(RESPONSE_DELAY_MILLIS / 2, TimeUnit.MILLISECONDS))
+
+        assertTrue(done.await(RESPONSE_DELAY_MILLIS * TASKS, TimeUnit.MILLISECONDS))
+        val elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)
+
+        println("$TASKS tasks on a single worker completed in ${elapsed}ms")
+        assertEquals(TASKS, successCount.get())
+        assertTrue("elapsed ${elapsed}ms", elapsed < RESPONSE_DELAY_MILLIS * 2)
+    }
+
+    /**
+     * Sends a GET request with the non-blocking methods of the client.
+     */
+    private class GetTask(builder: Builder) : AbstractTask<HttpBody, ByteArray>(builder) {
+
+        override fun httpMethod() = MethodName.GET
+
+        override fun onSuccess(httpResult: CallResult<ByteArray>) = httpResult
+
+        override fun newBuilder() = Builder(this)
+
+        // The default network interceptors need the Android device info
+        override fun httpClientConfig(): HttpClientConfig = object : DefaultHttpClientConfig() {
+            override fun networkInterceptors() = emptyList<Interceptor>()
+        }
+
+        class Builder : AbstractTask.Builder<HttpBody, ByteArray, Builder> {
+            constructor() : super()
+            constructor(task: Task<HttpBody, ByteArray>) : super(task)
+
+            override fun newTask(): Task<HttpBody, ByteArray> = GetTask(this)
+        }
+    }
+
+    /**
+     * Counts the successful tasks, and counts the latch down once the task is finished.
+     */
+    private class CountingCallback(
+            private val successCount: AtomicInteger,
+            private val done: CountDownLatch
+    ) : Callback<HttpBody, ByteArray> {
+
+        override fun onShouldExecute(call: Call<HttpBody>) = true
+
+        override fun onSuccess(call: Call<HttpBody>, entity: ResponseEntity<ByteArray>) {
+            successCount.incrementAndGet()
+            done.countDown()
+        }
+
+        override fun onFailure(call: Call<HttpBody>, error: RestApiError) = done.countDown()
+
+        override fun onCancel(call: Call<HttpBody>) = done.countDown()
+    }
+
+    private val server = MockWebServer()
+
+    private val ioExecutor = Executors.newSingleThreadExecutor()
+
+    companion object {
+        private const val TASKS = 4
+        private const val RESPONSE_DELAY_MILLIS = 500L
+    }
+}
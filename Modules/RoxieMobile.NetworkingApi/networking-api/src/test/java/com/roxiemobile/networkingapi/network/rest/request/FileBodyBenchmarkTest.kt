@@ -0,0 +1,124 @@
+package com.roxiemobile.networkingapi.network.rest.request
+
+import com.roxiemobile.networkingapi.network.http.MediaType
+import com.roxiemobile.networkingapi.network.rest.HttpBody
+import com.roxiemobile.networkingapi.network.rest.NoDelayServerSocketFactory
+import com.roxiemobile.networkingapi.network.rest.RestApiClient
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.lang.management.ManagementFactory
+import java.util.Random
+import java.util.concurrent.TimeUnit
+
+/**
+ * Uploads a 50 MB file as a [FileBody] and as a [ByteArrayBody] read from the file, and compares
+ * the heap allocated by the uploading thread and the throughput.
+ */
+class FileBodyBenchmarkTest {
+
+    @Before
+    fun setUp() {
+        file = File.createTempFile("upload", ".bin")
+        file.outputStream().use { stream ->
+            val buffer = ByteArray(1024 * 1024)
+            val random = Random(0)
+            repeat(FILE_SIZE / buffer.size) {
+                random.nextBytes(buffer)
+                stream.write(buffer)
+            }
+        }
+
+        // The server counts the bytes of the upload without keeping them
+        server.setServerSocketFactory(NoDelayServerSocketFactory())
+        server.setBodyLimit(0)
+        server.setDispatcher(object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest) = MockResponse().setBody("ok")
+        })
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.shutdown()
+        file.delete()
+    }
+
+    @Test
+    fun fileBody_uploadsWithoutHoldingFileInHeap() {
+        val fileBody = { FileBody(file) }
+        val byteArrayBody = { ByteArrayBody(file.readBytes()) }
+
+        // Warm up both paths before measuring
+        upload(fileBody)
+        upload(byteArrayBody)
+
+        val fileStats = upload(fileBody)
+        val byteArrayStats = upload(byteArrayBody)
+
+        println("FileBody:      $fileStats")
+        println("ByteArrayBody: $byteArrayStats")
+        assertTrue("$fileStats vs $byteArrayStats", fileStats.allocatedBytes * 10 < byteArrayStats.allocatedBytes)
+        assertTrue("$fileStats vs $byteArrayStats", fileStats.megabytesPerSecond * 2 >= byteArrayStats.megabytesPerSecond)
+    }
+
+    @Test
+    fun fileSlice_pastEndOfFileIsRejected() {
+        try {
+            FileBody(file, MediaType.APPLICATION_OCTET_STREAM, FILE_SIZE - 1L, 2)
+            fail("The slice past the end of the file is accepted")
+        }
+        catch (ex: RuntimeException) {
+            // Expected
+        }
+    }
+
+    /**
+     * Uploads the body made by the given function, which is counted in the allocations as well,
+     * and returns the heap allocated by the calling thread and the throughput.
+     */
+    private fun upload(newBody: () -> HttpBody): Stats {
+        val thread = Thread.currentThread().id
+        val allocatedBefore = THREAD_MX_BEAN.getThreadAllocatedBytes(thread)
+        val startTime = System.nanoTime()
+
+        val entity = BasicRequestEntity.Builder<HttpBody>()
+                .uri(server.url("/").uri())
+                .body(newBody())
+                .build()
+        assertTrue(client.post(entity).isSuccess)
+
+        val allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(thread) - allocatedBefore
+        val elapsed = System.nanoTime() - startTime
+        assertEquals(FILE_SIZE.toLong(), server.takeRequest().bodySize)
+
+        return Stats(
+                allocatedBytes = allocated,
+                megabytesPerSecond = FILE_SIZE * TimeUnit.SECONDS.toNanos(1) / elapsed / (1024 * 1024)
+        )
+    }
+
+    private data class Stats(val allocatedBytes: Long, val megabytesPerSecond: Long) {
+        override fun toString() = "${allocatedBytes / 1024} KB allocated, $megabytesPerSecond MB/s"
+    }
+
+    private lateinit var file: File
+
+    private val server = MockWebServer()
+
+    private val client = RestApiClient.Builder().build()
+
+    companion object {
+        private const val FILE_SIZE = 50 * 1024 * 1024
+
+        private val THREAD_MX_BEAN = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+    }
+}